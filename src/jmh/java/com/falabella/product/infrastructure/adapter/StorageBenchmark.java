@@ -0,0 +1,108 @@
+package com.falabella.product.infrastructure.adapter;
+
+import com.falabella.product.ProductApplication;
+import com.falabella.product.domain.model.Product;
+import com.falabella.product.domain.model.ProductQuery;
+import com.falabella.product.domain.model.Sku;
+import com.falabella.product.domain.port.ProductOperations;
+import com.falabella.product.infrastructure.adapter.model.ProductEntity;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of the in-memory database (default profile) against the file database
+ * of the prod profile, on a catalog of ten thousand products. The repository is called
+ * directly so the product cache does not hide the database.
+ *
+ * @author german
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StorageBenchmark {
+
+    public static final int PRODUCTS = 10_000;
+    static final int BRANDS = 100;
+
+    @Param({"default", "prod"})
+    private String profile;
+
+    private Path storagePath;
+    private ConfigurableApplicationContext context;
+    private ProductRepository repository;
+    private ProductQuery brandPriceQuery;
+
+    @Setup
+    public void setUp() throws IOException {
+        storagePath = Files.createTempDirectory("product-storage");
+        context = start(profile, storagePath);
+        repository = context.getBean(ProductRepository.class);
+        seed(context.getBean(ProductOperations.class));
+        brandPriceQuery = ProductQuery.builder()
+                .brand("brand-7")
+                .minPrice(new BigDecimal("100.00"))
+                .maxPrice(new BigDecimal("500.00")).build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(storagePath);
+    }
+
+    @Benchmark
+    public Optional<ProductEntity> findById() {
+        return repository.findById(sku(ThreadLocalRandom.current().nextInt(PRODUCTS)));
+    }
+
+    @Benchmark
+    public Optional<ProductEntity> findBySkuKey() {
+        return repository.findBySkuKey(Sku.parse(sku(ThreadLocalRandom.current().nextInt(PRODUCTS))));
+    }
+
+    @Benchmark
+    public List<ProductEntity> findByBrandAndPrice() {
+        return repository.findPage(brandPriceQuery, 20);
+    }
+
+    static ConfigurableApplicationContext start(String profile, Path storagePath) {
+        return new SpringApplicationBuilder(ProductApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(profile)
+                .properties("product.storage.path=" + storagePath, "logging.level.com.falabella.product=warn")
+                .run();
+    }
+
+    public static void seed(ProductOperations productOperations) {
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(Product.builder()
+                    .sku(sku(i))
+                    .name("name-" + i)
+                    .brand("brand-" + (i % BRANDS))
+                    .size("M")
+                    .price(BigDecimal.valueOf(i % 1000 * 100L + 99, 2))
+                    .principalImage("http://localhost/image/" + i)
+                    .otherImages(List.of("http://localhost/image/" + i + "-1", "http://localhost/image/" + i + "-2")).build());
+        }
+        productOperations.saveProducts(products);
+    }
+
+    public static String sku(int i) {
+        return String.format("FAL-%07d", i);
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.falabella.product.infrastructure.adapter;
+
+import com.falabella.product.domain.port.ProductOperations;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Restart of the application over a database that already holds the catalog. Returns the
+ * products found after the restart, the in-memory database of the default profile comes back empty.
+ *
+ * @author german
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class StorageStartupBenchmark {
+
+    @Param({"default", "prod"})
+    private String profile;
+
+    private Path storagePath;
+
+    @Setup
+    public void setUp() throws IOException {
+        storagePath = Files.createTempDirectory("product-storage");
+        try (ConfigurableApplicationContext context = StorageBenchmark.start(profile, storagePath)) {
+            StorageBenchmark.seed(context.getBean(ProductOperations.class));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(storagePath);
+    }
+
+    @Benchmark
+    public long restart() {
+        try (ConfigurableApplicationContext context = StorageBenchmark.start(profile, storagePath)) {
+            return context.getBean(ProductRepository.class).count();
+        }
+    }
+
+}
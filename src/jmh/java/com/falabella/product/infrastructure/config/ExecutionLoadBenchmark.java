@@ -0,0 +1,117 @@
+package com.falabella.product.infrastructure.config;
+
+import com.falabella.product.ProductApplication;
+import com.falabella.product.domain.port.ProductOperations;
+import com.falabella.product.infrastructure.adapter.StorageBenchmark;
+import com.falabella.product.presentation.api.ProductCursor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the execution modes over HTTP: the application runs with the prod profile, so every
+ * request goes through Tomcat, the service and the Hikari pool of 16 connections to the file database,
+ * and a burst of concurrent requests hits the product and page endpoints. The product cache is off so
+ * each request takes a connection. Requests answered with anything but 200, or not at all, are counted
+ * as failures: a request that waits on the pool longer than its connection timeout fails. It runs the
+ * platform mode by default; on a JDK 21 or later runtime {@code -p mode=platform,virtual} compares it
+ * with virtual threads, where the pool rather than the worker threads is what requests queue on.
+ *
+ * @author german
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms512m", "-Xmx512m", "-Xss1m"})
+public class ExecutionLoadBenchmark {
+
+    @Param({"platform"})
+    private String mode;
+
+    @Param({"200", "1000"})
+    private int concurrentRequests;
+
+    private Path storagePath;
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup
+    public void setUp() throws IOException {
+        storagePath = Files.createTempDirectory("product-load");
+        context = new SpringApplicationBuilder(ProductApplication.class)
+                .profiles("prod")
+                .properties("server.port=0",
+                        "product.storage.path=" + storagePath,
+                        "product.execution.virtual-threads=" + "virtual".equals(mode),
+                        "product.cache.maximum-size=0",
+                        "logging.level.com.falabella.product=warn",
+                        "logging.level.com.falabella.product.access=warn")
+                .run();
+        StorageBenchmark.seed(context.getBean(ProductOperations.class));
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1";
+        clientExecutor = Executors.newFixedThreadPool(8);
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        clientExecutor.shutdownNow();
+        FileSystemUtils.deleteRecursively(storagePath.toFile());
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Responses {
+
+        public long failed;
+
+    }
+
+    /**
+     * Time to answer the whole burst, one request in ten reads a page of 50 products.
+     */
+    @Benchmark
+    public void burst(Responses responses) {
+        CompletableFuture<?>[] requests = new CompletableFuture<?>[concurrentRequests];
+        for (int i = 0; i < concurrentRequests; i++) {
+            String sku = StorageBenchmark.sku(ThreadLocalRandom.current().nextInt(StorageBenchmark.PRODUCTS));
+            String path = i % 10 == 0 ? "/products?after=" + ProductCursor.encode(sku) + "&limit=50" : "/product/" + sku;
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            requests[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> error == null && response.statusCode() == 200);
+        }
+        for (CompletableFuture<?> request : requests) {
+            if (!(Boolean) request.join()) {
+                responses.failed++;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.falabella.product.infrastructure.search;
+
+import com.falabella.product.domain.model.Product;
+import com.falabella.product.domain.model.ProductSearchQuery;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency over a catalog of a million products. Besides words and prefixes it covers a short
+ * prefix that spans a quarter of the dictionary, alone and next to a rare word, and the brand without text.
+ *
+ * @author german
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class ProductIndexBenchmark {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int WORDS = 5_000;
+    private static final int BRANDS = 300;
+    private static final String[] SIZES = {"XS", "S", "M", "L", "XL"};
+
+    private ProductIndex index;
+    private ProductSearchQuery wordQuery;
+    private ProductSearchQuery prefixQuery;
+    private ProductSearchQuery brandPriceQuery;
+    private ProductSearchQuery shortPrefixQuery;
+    private ProductSearchQuery shortPrefixAndWordQuery;
+    private ProductSearchQuery brandQuery;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new ProductIndex();
+        for (int i = 0; i < PRODUCTS; i++) {
+            index.index(Product.builder()
+                    .sku(String.format("FAL-%07d", i))
+                    .name(word(random.nextInt(WORDS)) + " " + word(random.nextInt(WORDS)) + " " + word(random.nextInt(WORDS)))
+                    .brand("brand" + random.nextInt(BRANDS))
+                    .size(SIZES[random.nextInt(SIZES.length)])
+                    .price(BigDecimal.valueOf(random.nextInt(100_000), 2)).build());
+        }
+        wordQuery = ProductSearchQuery.builder().text(word(17) + " " + word(4242)).limit(20).build();
+        prefixQuery = ProductSearchQuery.builder().text(word(17).substring(0, 5)).limit(20).build();
+        brandPriceQuery = ProductSearchQuery.builder().text(word(17)).brand("brand7")
+                .minPrice(new BigDecimal("100")).maxPrice(new BigDecimal("500")).limit(20).build();
+        shortPrefixQuery = ProductSearchQuery.builder().text("word1").limit(20).build();
+        shortPrefixAndWordQuery = ProductSearchQuery.builder().text("word1 " + word(4242)).limit(20).build();
+        brandQuery = ProductSearchQuery.builder().brand("brand7")
+                .minPrice(new BigDecimal("100")).maxPrice(new BigDecimal("500")).limit(20).build();
+    }
+
+    @Benchmark
+    public ProductIndex.Hits searchWords() {
+        return index.search(wordQuery);
+    }
+
+    @Benchmark
+    public ProductIndex.Hits searchPrefix() {
+        return index.search(prefixQuery);
+    }
+
+    @Benchmark
+    public ProductIndex.Hits searchBrandAndPrice() {
+        return index.search(brandPriceQuery);
+    }
+
+    @Benchmark
+    public ProductIndex.Hits searchShortPrefix() {
+        return index.search(shortPrefixQuery);
+    }
+
+    @Benchmark
+    public ProductIndex.Hits searchShortPrefixAndWord() {
+        return index.search(shortPrefixAndWordQuery);
+    }
+
+    @Benchmark
+    public ProductIndex.Hits searchBrandWithoutText() {
+        return index.search(brandQuery);
+    }
+
+    private static String word(int i) {
+        return "word" + Integer.toString(i, 36) + "x";
+    }
+
+}
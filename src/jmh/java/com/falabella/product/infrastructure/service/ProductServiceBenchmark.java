@@ -0,0 +1,48 @@
+package com.falabella.product.infrastructure.service;
+
+import com.falabella.product.domain.model.Product;
+import com.falabella.product.infrastructure.adapter.model.ProductEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping between the domain model and the persistence model.
+ *
+ * @author german
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ProductServiceBenchmark {
+
+    private Product product;
+    private ProductEntity productEntity;
+
+    @Setup
+    public void setUp() {
+        product = Product.builder()
+                .sku("FAL-1111111")
+                .name("some-name")
+                .brand("some-brand")
+                .size("M")
+                .price(new BigDecimal("1.00"))
+                .principalImage("http://localhost/image")
+                .otherImages(List.of("http://localhost/other-image-1", "http://localhost/other-image-2"))
+                .version(1L).build();
+        productEntity = ProductService.buildEntity(product);
+    }
+
+    @Benchmark
+    public ProductEntity buildEntity() {
+        return ProductService.buildEntity(product);
+    }
+
+    @Benchmark
+    public Product entityToDomain() {
+        return productEntity.toDomain();
+    }
+
+}
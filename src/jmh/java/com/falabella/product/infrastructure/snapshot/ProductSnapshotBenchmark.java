@@ -0,0 +1,83 @@
+package com.falabella.product.infrastructure.snapshot;
+
+import com.falabella.product.domain.model.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups by sku on a snapshot of a million products, run with {@code -prof gc} to see the allocation per lookup.
+ *
+ * @author german
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx256m"})
+public class ProductSnapshotBenchmark {
+
+    private static final int PRODUCTS = 1_000_000;
+
+    private Path path;
+    private ProductSnapshot snapshot;
+    private String[] skus;
+    private String[] unknownSkus;
+
+    @Setup
+    public void setUp() throws IOException {
+        path = Files.createTempFile("products", ".snapshot");
+        ProductSnapshotWriter.write(path, consumer -> {
+            for (int i = 0; i < PRODUCTS; i++) {
+                consumer.accept(Product.builder()
+                        .sku(sku(i))
+                        .name("Product " + i)
+                        .brand("brand" + i % 300)
+                        .size("42")
+                        .price(BigDecimal.valueOf(i % 100_000, 2))
+                        .principalImage("https://falabella.scene7.com/image/" + i)
+                        .otherImages(List.of("https://falabella.scene7.com/image/" + i + "-2"))
+                        .version(0L).build());
+            }
+        });
+        snapshot = ProductSnapshot.open(path);
+        skus = new String[1024];
+        unknownSkus = new String[skus.length];
+        for (int i = 0; i < skus.length; i++) {
+            skus[i] = sku(ThreadLocalRandom.current().nextInt(PRODUCTS));
+            unknownSkus[i] = sku(PRODUCTS + ThreadLocalRandom.current().nextInt(PRODUCTS));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public Product get() {
+        return snapshot.get(skus[ThreadLocalRandom.current().nextInt(skus.length)]);
+    }
+
+    @Benchmark
+    public boolean miss() {
+        return snapshot.contains(unknownSkus[ThreadLocalRandom.current().nextInt(unknownSkus.length)]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ProductSnapshot open() throws IOException {
+        return ProductSnapshot.open(path);
+    }
+
+    private static String sku(int i) {
+        return String.format("FAL-%07d", i);
+    }
+
+}
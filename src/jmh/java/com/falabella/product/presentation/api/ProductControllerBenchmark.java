@@ -0,0 +1,135 @@
+package com.falabella.product.presentation.api;
+
+import com.falabella.product.domain.model.Product;
+import com.falabella.product.presentation.api.model.DataResponse;
+import com.falabella.product.presentation.api.model.ProductRequest;
+import com.falabella.product.presentation.api.model.ProductResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Request and response pipeline of the product endpoints, from request body to serialized response.
+ *
+ * @author german
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ProductControllerBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private ObjectMapper objectMapper;
+    private Validator validator;
+    private ProductController controller;
+    private ProductRequest request;
+    private Product product;
+    private DataResponse dataResponse;
+    private ProductResponse productResponse;
+    private List<DataResponse> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new Jackson2HalModule());
+        objectMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        controller = new ProductController(null, objectMapper, validator, new StandardEnvironment());
+
+        request = new ProductRequest();
+        request.setSku("FAL-1111111");
+        request.setName("some-name");
+        request.setBrand("some-brand");
+        request.setSize("M");
+        request.setPrice(new BigDecimal("1.00"));
+        request.setPrincipalImage("http://localhost/image");
+        request.setOtherImages(List.of("http://localhost/other-image-1", "http://localhost/other-image-2"));
+
+        product = request.toDomain();
+        dataResponse = DataResponse.of(product);
+        productResponse = controller.assembleResponse(dataResponse);
+        page = IntStream.range(0, PAGE_SIZE)
+                .mapToObj(i -> {
+                    ProductRequest pageRequest = new ProductRequest();
+                    pageRequest.setSku(String.format("FAL-%07d", i));
+                    pageRequest.setName(request.getName());
+                    pageRequest.setBrand(request.getBrand());
+                    pageRequest.setSize(request.getSize());
+                    pageRequest.setPrice(request.getPrice());
+                    pageRequest.setPrincipalImage(request.getPrincipalImage());
+                    pageRequest.setOtherImages(request.getOtherImages());
+                    return DataResponse.of(pageRequest.toDomain());
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Product requestToDomain() {
+        return request.toDomain();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ProductRequest>> validateRequest() {
+        return validator.validate(request);
+    }
+
+    @Benchmark
+    public DataResponse dataResponseOf() {
+        return DataResponse.of(product);
+    }
+
+    @Benchmark
+    public ProductResponse assembleResponse() {
+        return controller.assembleResponse(dataResponse);
+    }
+
+    @Benchmark
+    public ProductResponse assembleResponseWithMethodOn() {
+        return assembleWithMethodOn(dataResponse);
+    }
+
+    @Benchmark
+    public List<ProductResponse> renderPage() {
+        ProductLinks links = ProductLinks.current();
+        return page.stream().map(links::assemble).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<ProductResponse> renderPageWithMethodOn() {
+        return page.stream().map(ProductControllerBenchmark::assembleWithMethodOn).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(productResponse);
+    }
+
+    /**
+     * Link building used before {@link ProductLinks}, kept as the baseline.
+     */
+    private static ProductResponse assembleWithMethodOn(DataResponse dataResponse) {
+        ProductResponse productResponse = new ProductResponse(dataResponse);
+        productResponse.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ProductController.class).getProductBySku(dataResponse.getSku(), null, null)).withSelfRel());
+        productResponse.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ProductController.class).getProductBySku(dataResponse.getSku(), null, null)).withRel("product"));
+        return productResponse;
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.falabella.product.domain.error;
+
+/**
+ * @author german
+ */
+public class ProductBackpressureException extends RuntimeException {
+
+    public ProductBackpressureException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.falabella.product.domain.error;
+
+/**
+ * @author german
+ */
+public class ProductConflictException extends RuntimeException {
+
+    public ProductConflictException(String message) {
+        super(message);
+    }
+}
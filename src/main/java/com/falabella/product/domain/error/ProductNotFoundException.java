@@ -1,11 +1,13 @@
 package com.falabella.product.domain.error;
 
 /**
+ * Thrown for every unknown sku, so it skips filling in the stack trace.
+ *
  * @author german
  */
 public class ProductNotFoundException extends RuntimeException {
 
     public ProductNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,11 @@
+package com.falabella.product.domain.error;
+
+/**
+ * @author german
+ */
+public class ProductReadOnlyException extends RuntimeException {
+
+    public ProductReadOnlyException(String message) {
+        super(message);
+    }
+}
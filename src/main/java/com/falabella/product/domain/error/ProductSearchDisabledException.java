@@ -0,0 +1,11 @@
+package com.falabella.product.domain.error;
+
+/**
+ * @author german
+ */
+public class ProductSearchDisabledException extends RuntimeException {
+
+    public ProductSearchDisabledException(String message) {
+        super(message);
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.ToString;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -22,5 +23,10 @@ public class Product {
     private BigDecimal price;
     private String principalImage;
     private List<String> otherImages;
+    private Long version;
+    /**
+     * When the stored product last changed, {@code null} when not known.
+     */
+    private Instant updatedAt;
 
 }
@@ -0,0 +1,27 @@
+package com.falabella.product.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Outcome of one item of a bulk write.
+ *
+ * @author german
+ */
+@Data
+@Builder
+@ToString
+public class ProductBatchResult {
+
+    private String sku;
+    private Status status;
+    private List<String> details;
+
+    public enum Status {
+        CREATED, UPDATED, INVALID, NOT_FOUND, FAILED
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.falabella.product.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Latest state of a product changed since a point in time.
+ *
+ * @author german
+ */
+@Data
+@Builder
+@ToString
+public class ProductChange {
+
+    private String sku;
+    private Instant changedAt;
+
+    /**
+     * The product as it is now, {@code null} when it was deleted.
+     */
+    private Product product;
+
+    public boolean isDeleted() {
+        return product == null;
+    }
+
+}
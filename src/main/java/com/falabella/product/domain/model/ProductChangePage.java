@@ -0,0 +1,32 @@
+package com.falabella.product.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * @author german
+ */
+@Data
+@Builder
+@ToString
+public class ProductChangePage {
+
+    private List<ProductChange> changes;
+
+    /**
+     * Position to resume from, after the last change in this page or the requested one when it is empty.
+     * Kept by clients between refreshes, not only between pages.
+     */
+    private Instant since;
+    private String after;
+
+    /**
+     * Whether more changes follow this page.
+     */
+    private boolean more;
+
+}
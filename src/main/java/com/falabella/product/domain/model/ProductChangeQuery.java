@@ -0,0 +1,30 @@
+package com.falabella.product.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Keyset page request over the changes ordered by time and sku.
+ *
+ * @author german
+ */
+@Data
+@Builder
+@ToString
+public class ProductChangeQuery {
+
+    /**
+     * Inclusive lower bound on the change time.
+     */
+    private Instant since;
+
+    /**
+     * Exclusive lower bound on the sku of the changes made at {@code since}, {@code null} to include them all.
+     */
+    private String after;
+    private int limit;
+
+}
@@ -0,0 +1,35 @@
+package com.falabella.product.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * A committed change to a product, numbered in the order it was published.
+ *
+ * @author german
+ */
+@Data
+@Builder
+@ToString
+public class ProductEvent {
+
+    private long sequence;
+    private String sku;
+    private Type type;
+
+    /**
+     * Version of the product after the change, {@code null} for a deletion.
+     */
+    private Long version;
+    private Instant createdAt;
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+}
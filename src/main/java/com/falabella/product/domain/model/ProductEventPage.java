@@ -0,0 +1,24 @@
+package com.falabella.product.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * @author german
+ */
+@Data
+@Builder
+@ToString
+public class ProductEventPage {
+
+    private List<ProductEvent> events;
+
+    /**
+     * Sequence to resume from, the last one in this page or the requested one when it is empty.
+     */
+    private long next;
+
+}
@@ -0,0 +1,22 @@
+package com.falabella.product.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Result of a multi-sku lookup, products in request order plus the skus that do not exist.
+ *
+ * @author german
+ */
+@Data
+@Builder
+@ToString
+public class ProductLookup {
+
+    private List<Product> products;
+    private List<String> missing;
+
+}
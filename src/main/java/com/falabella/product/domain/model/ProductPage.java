@@ -0,0 +1,24 @@
+package com.falabella.product.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * @author german
+ */
+@Data
+@Builder
+@ToString
+public class ProductPage {
+
+    private List<Product> products;
+
+    /**
+     * Sku to resume from on the next page, {@code null} when this is the last page.
+     */
+    private String next;
+
+}
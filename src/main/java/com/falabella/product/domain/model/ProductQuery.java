@@ -0,0 +1,44 @@
+package com.falabella.product.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Keyset page request over products ordered by sku, optionally narrowed to a brand and a price range.
+ *
+ * @author german
+ */
+@Data
+@Builder
+@ToString
+public class ProductQuery {
+
+    /**
+     * Exclusive lower bound on sku, {@code null} to start from the first product.
+     */
+    private String after;
+    private int limit;
+    private String brand;
+
+    /**
+     * Inclusive price bounds, {@code null} when unbounded.
+     */
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+
+    /**
+     * Leave out the other images, the returned products have none.
+     */
+    private boolean withoutImages;
+
+    /**
+     * Product properties to read besides the sku, as named in {@link Product}, {@code null} for all of them.
+     * A page without images leaves the other columns unread, the returned products have them {@code null}.
+     */
+    private Set<String> fields;
+
+}
@@ -0,0 +1,29 @@
+package com.falabella.product.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * Search over name, brand and size, every word of the text matches as a prefix.
+ *
+ * @author german
+ */
+@Data
+@Builder
+@ToString
+public class ProductSearchQuery {
+
+    /**
+     * Words to match, {@code null} or blank to match every product of the brand. A query without
+     * words nor brand matches nothing.
+     */
+    private String text;
+    private String brand;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private int limit;
+
+}
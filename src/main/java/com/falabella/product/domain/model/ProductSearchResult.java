@@ -0,0 +1,31 @@
+package com.falabella.product.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author german
+ */
+@Data
+@Builder
+@ToString
+public class ProductSearchResult {
+
+    private List<Product> products;
+
+    /**
+     * Number of matching products, of which at most the query limit are returned.
+     */
+    private int total;
+
+    /**
+     * Matching products per brand, most frequent first. Counted before the brand filter
+     * so the other brands can still be offered as alternatives.
+     */
+    private Map<String, Integer> brands;
+
+}
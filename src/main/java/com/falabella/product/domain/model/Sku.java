@@ -0,0 +1,104 @@
+package com.falabella.product.domain.model;
+
+/**
+ * Sku of the form {@code FAL-} followed by up to {@link #MAX_DIGITS} digits, packed into a {@code long}.
+ * <p>
+ * The key is the digits with a leading 1, so {@code FAL-0012} and {@code FAL-12} stay distinct:
+ * {@code FAL-0012} is 10012 and {@code FAL-12} is 112. Keys are positive, a primitive structure
+ * can use any negative value as its empty marker.
+ *
+ * @author german
+ */
+public final class Sku implements Comparable<Sku> {
+
+    public static final String PREFIX = "FAL-";
+    public static final int MAX_DIGITS = 18;
+
+    private static final long INVALID = -1;
+
+    private final long key;
+
+    private Sku(long key) {
+        this.key = key;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is not a sku
+     */
+    public static Sku parse(CharSequence value) {
+        long key = toKey(value);
+        if (key == INVALID) {
+            throw new IllegalArgumentException("Invalid sku " + value);
+        }
+        return new Sku(key);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the key was not produced by {@link #toKey(CharSequence)}
+     */
+    public static Sku fromKey(long key) {
+        if (key <= 0 || Long.toString(key).charAt(0) != '1') {
+            throw new IllegalArgumentException("Invalid sku key " + key);
+        }
+        return new Sku(key);
+    }
+
+    public static boolean isValid(CharSequence value) {
+        return toKey(value) != INVALID;
+    }
+
+    /**
+     * Key of the sku, or a negative value if it is not one, without allocating.
+     */
+    public static long toKey(CharSequence value) {
+        if (value == null) {
+            return INVALID;
+        }
+        int length = value.length();
+        if (length < PREFIX.length() || length > PREFIX.length() + MAX_DIGITS) {
+            return INVALID;
+        }
+        for (int i = 0; i < PREFIX.length(); i++) {
+            if (value.charAt(i) != PREFIX.charAt(i)) {
+                return INVALID;
+            }
+        }
+        long key = 1;
+        for (int i = PREFIX.length(); i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return INVALID;
+            }
+            key = key * 10 + (c - '0');
+        }
+        return key;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * Orders by key, which is sku order only among skus with the same number of digits.
+     */
+    @Override
+    public int compareTo(Sku other) {
+        return Long.compare(key, other.key);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Sku && ((Sku) other).key == key;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(key);
+    }
+
+    @Override
+    public String toString() {
+        return PREFIX + Long.toString(key).substring(1);
+    }
+
+}
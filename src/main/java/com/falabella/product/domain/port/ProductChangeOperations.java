@@ -0,0 +1,16 @@
+package com.falabella.product.domain.port;
+
+import com.falabella.product.domain.model.ProductChangePage;
+import com.falabella.product.domain.model.ProductChangeQuery;
+
+/**
+ * @author german
+ */
+public interface ProductChangeOperations {
+
+    /**
+     * Products created, updated or deleted at or after the query position, oldest first.
+     */
+    ProductChangePage getChanges(ProductChangeQuery query);
+
+}
@@ -0,0 +1,24 @@
+package com.falabella.product.domain.port;
+
+import com.falabella.product.domain.model.ProductEventPage;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * @author german
+ */
+public interface ProductEventOperations {
+
+    /**
+     * Events with a sequence greater than {@code after}, in sequence order.
+     */
+    ProductEventPage getEvents(long after, int limit);
+
+    /**
+     * Like {@link #getEvents(long, int)}, but when there are none yet completes with the first events
+     * published within the timeout, or with an empty page once it elapses.
+     */
+    CompletableFuture<ProductEventPage> awaitEvents(long after, int limit, Duration timeout);
+
+}
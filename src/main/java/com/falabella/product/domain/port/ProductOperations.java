@@ -1,8 +1,17 @@
 package com.falabella.product.domain.port;
 
 import com.falabella.product.domain.model.Product;
-
+import com.falabella.product.domain.model.ProductBatchResult;
+import com.falabella.product.domain.model.ProductLookup;
+import com.falabella.product.domain.model.ProductPage;
+import com.falabella.product.domain.model.ProductQuery;
+import com.falabella.product.domain.model.ProductSearchQuery;
+import com.falabella.product.domain.model.ProductSearchResult;
+
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * @author german
@@ -11,12 +20,28 @@ public interface ProductOperations {
 
     Product saveProduct(Product product);
 
+    List<ProductBatchResult> saveProducts(List<Product> products);
+
     Product getProductBySku(String sku);
 
+    ProductLookup getProductsBySkus(Collection<String> skus);
+
     Product updateProductBySku(String sku, Product product);
 
-    List<Product> getAllProducts();
+    ProductPage getProducts(ProductQuery query);
+
+    ProductSearchResult searchProducts(ProductSearchQuery query);
+
+    void exportProducts(Consumer<Product> consumer);
 
     void deleteProductBySku(String sku);
 
+    void deleteProductBySku(String sku, Long version);
+
+    /**
+     * When the catalog last changed, {@code null} if unknown. Read from the store, so every instance
+     * serving it answers the same.
+     */
+    Instant getLastModified();
+
 }
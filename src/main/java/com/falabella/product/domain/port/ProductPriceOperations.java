@@ -0,0 +1,18 @@
+package com.falabella.product.domain.port;
+
+import java.math.BigDecimal;
+
+/**
+ * @author german
+ */
+public interface ProductPriceOperations {
+
+    /**
+     * Accepts the new price of the sku, it is stored shortly after. A later price of the same sku
+     * accepted before then replaces it.
+     *
+     * @throws com.falabella.product.domain.error.ProductBackpressureException when too many prices are waiting
+     */
+    void updatePrice(String sku, BigDecimal price);
+
+}
@@ -0,0 +1,27 @@
+package com.falabella.product.infrastructure.adapter;
+
+import com.falabella.product.infrastructure.adapter.model.ProductEventEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * @author german
+ */
+@Repository
+public interface ProductEventRepository extends JpaRepository<ProductEventEntity, Long> {
+
+    @Query("select e from ProductEventEntity e where e.sequence > :after order by e.sequence")
+    List<ProductEventEntity> findPublishedAfter(@Param("after") long after, Pageable pageable);
+
+    @Query("select e from ProductEventEntity e where e.sequence is null order by e.id")
+    List<ProductEventEntity> findUnpublished(Pageable pageable);
+
+    @Query("select max(e.sequence) from ProductEventEntity e")
+    Long findLastSequence();
+
+}
@@ -1,12 +1,66 @@
 package com.falabella.product.infrastructure.adapter;
 
+import com.falabella.product.domain.model.Sku;
 import com.falabella.product.infrastructure.adapter.model.ProductEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 /**
  * @author german
  */
 @Repository
-public interface ProductRepository extends JpaRepository<ProductEntity, String> {
+public interface ProductRepository extends JpaRepository<ProductEntity, String>, ProductRepositoryCustom {
+
+    @Override
+    @EntityGraph(attributePaths = "otherImages")
+    Optional<ProductEntity> findById(String sku);
+
+    /**
+     * Written out as a query, a derived one is rebuilt as a criteria query on every call.
+     */
+    @Query("select p from ProductEntity p left join fetch p.otherImages where p.skuKey = :skuKey")
+    Optional<ProductEntity> findBySkuKey(@Param("skuKey") Sku skuKey);
+
+    @Override
+    @Query("select distinct p from ProductEntity p left join fetch p.otherImages")
+    @QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"))
+    List<ProductEntity> findAll();
+
+    @Query("select distinct p from ProductEntity p left join fetch p.otherImages where p.skuKey in :skuKeys")
+    @QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"))
+    List<ProductEntity> findAllWithImagesBySkuKeyIn(@Param("skuKeys") Collection<Sku> skuKeys);
+
+    @Query("select max(p.updatedAt) from ProductEntity p")
+    Instant findLastUpdatedAt();
+
+    /**
+     * Products changed after the position (since, after) and before until, ordered by change time and sku. The
+     * first conditions alone bound the range scan of the updated at index, the last drops the skus already read at since.
+     */
+    @Query("select p from ProductEntity p where p.updatedAt >= :since and p.updatedAt < :until"
+            + " and (p.updatedAt > :since or p.sku > :after) order by p.updatedAt, p.sku")
+    List<ProductEntity> findChangedSince(@Param("since") Instant since, @Param("after") String after,
+                                         @Param("until") Instant until, Pageable pageable);
+
+    /**
+     * Forward-only scroll over the whole catalog, must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    Stream<ProductEntity> streamAllBy();
+
 }
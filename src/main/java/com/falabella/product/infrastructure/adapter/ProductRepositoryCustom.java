@@ -0,0 +1,28 @@
+package com.falabella.product.infrastructure.adapter;
+
+import com.falabella.product.domain.model.ProductQuery;
+import com.falabella.product.infrastructure.adapter.model.ProductEntity;
+import com.falabella.product.infrastructure.adapter.model.ProductSummary;
+
+import java.util.List;
+
+/**
+ * Queries built from optional filters, only the filters present end up in the statement
+ * so the database can range scan the brand and price indexes.
+ *
+ * @author german
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Products after the query cursor that match its filters, ordered by sku.
+     */
+    List<ProductEntity> findPage(ProductQuery query, int maxResults);
+
+    /**
+     * Same page as {@link #findPage(ProductQuery, int)}, selecting only the sku, the version and the
+     * product columns of the query fields.
+     */
+    List<ProductSummary> findSummaryPage(ProductQuery query, int maxResults);
+
+}
@@ -0,0 +1,90 @@
+package com.falabella.product.infrastructure.adapter;
+
+import com.falabella.product.domain.model.ProductQuery;
+import com.falabella.product.infrastructure.adapter.model.ProductEntity;
+import com.falabella.product.infrastructure.adapter.model.ProductSummary;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * @author german
+ */
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final List<String> SUMMARY_COLUMNS = List.of("name", "brand", "size", "price", "principalImage");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductEntity> findPage(ProductQuery query, int maxResults) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductEntity> criteria = builder.createQuery(ProductEntity.class);
+        Root<ProductEntity> product = criteria.from(ProductEntity.class);
+        return getPage(criteria, product, query, maxResults);
+    }
+
+    @Override
+    public List<ProductSummary> findSummaryPage(ProductQuery query, int maxResults) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteria = builder.createTupleQuery();
+        Root<ProductEntity> product = criteria.from(ProductEntity.class);
+        Set<String> fields = query.getFields();
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(product.get("sku").alias("sku"));
+        selections.add(product.get("version").alias("version"));
+        SUMMARY_COLUMNS.stream()
+                .filter(column -> fields == null || fields.contains(column))
+                .forEach(column -> selections.add(product.get(column).alias(column)));
+        criteria.multiselect(selections);
+        return getPage(criteria, product, query, maxResults).stream()
+                .map(tuple -> new ProductSummary(
+                        tuple.get("sku", String.class),
+                        column(tuple, fields, "name", String.class),
+                        column(tuple, fields, "brand", String.class),
+                        column(tuple, fields, "size", String.class),
+                        column(tuple, fields, "price", BigDecimal.class),
+                        column(tuple, fields, "principalImage", String.class),
+                        tuple.get("version", Long.class)))
+                .collect(Collectors.toList());
+    }
+
+    private static <T> T column(Tuple tuple, Set<String> fields, String column, Class<T> type) {
+        return fields == null || fields.contains(column) ? tuple.get(column, type) : null;
+    }
+
+    private <T> List<T> getPage(CriteriaQuery<T> criteria, Root<ProductEntity> product, ProductQuery query, int maxResults) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        List<Predicate> predicates = new ArrayList<>();
+        if (query.getAfter() != null) {
+            predicates.add(builder.greaterThan(product.get("sku"), query.getAfter()));
+        }
+        if (query.getBrand() != null) {
+            predicates.add(builder.equal(product.get("brand"), query.getBrand()));
+        }
+        if (query.getMinPrice() != null) {
+            predicates.add(builder.greaterThanOrEqualTo(product.get("price"), query.getMinPrice()));
+        }
+        if (query.getMaxPrice() != null) {
+            predicates.add(builder.lessThanOrEqualTo(product.get("price"), query.getMaxPrice()));
+        }
+        criteria.where(predicates.toArray(new Predicate[0]))
+                .orderBy(builder.asc(product.get("sku")));
+        return entityManager.createQuery(criteria)
+                .setMaxResults(maxResults)
+                .getResultList();
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.falabella.product.infrastructure.adapter;
+
+import com.falabella.product.infrastructure.adapter.model.ProductTombstoneEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * @author german
+ */
+@Repository
+public interface ProductTombstoneRepository extends JpaRepository<ProductTombstoneEntity, String> {
+
+    @Query("select max(t.deletedAt) from ProductTombstoneEntity t")
+    Instant findLastDeletedAt();
+
+    /**
+     * Same keyset as {@link ProductRepository#findChangedSince(Instant, String, Instant, Pageable)}.
+     */
+    @Query("select t from ProductTombstoneEntity t where t.deletedAt >= :since and t.deletedAt < :until"
+            + " and (t.deletedAt > :since or t.sku > :after) order by t.deletedAt, t.sku")
+    List<ProductTombstoneEntity> findDeletedSince(@Param("since") Instant since, @Param("after") String after,
+                                                  @Param("until") Instant until, Pageable pageable);
+
+}
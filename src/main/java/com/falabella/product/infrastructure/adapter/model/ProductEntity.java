@@ -1,10 +1,15 @@
 package com.falabella.product.infrastructure.adapter.model;
 
 import com.falabella.product.domain.model.Product;
+import com.falabella.product.domain.model.Sku;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -16,13 +21,26 @@ import java.util.List;
 @NoArgsConstructor
 @ToString
 @Entity
-@Table(name = "PRODUCT")
+@DynamicUpdate
+@Table(name = "PRODUCT", indexes = {
+        @Index(name = "IDX_PRODUCT_BRAND_PRICE", columnList = "BRAND, PRICE"),
+        @Index(name = "IDX_PRODUCT_PRICE", columnList = "PRICE"),
+        @Index(name = "IDX_PRODUCT_SKU_KEY", columnList = "SKU_KEY", unique = true),
+        @Index(name = "IDX_PRODUCT_UPDATED_AT", columnList = "UPDATED_AT, SKU")
+})
 public class ProductEntity {
 
     @Id
     @Column(name = "SKU", length = 12, nullable = false)
     private String sku;
 
+    /**
+     * The sku packed into a number, lookups go through its index instead of comparing strings.
+     */
+    @Convert(converter = SkuConverter.class)
+    @Column(name = "SKU_KEY", nullable = false, updatable = false)
+    private Sku skuKey;
+
     @Column(name = "NAME", length = 50, nullable = false)
     private String name;
 
@@ -38,10 +56,39 @@ public class ProductEntity {
     @Column(name = "PRINCIPAL_IMAGE", nullable = false)
     private String principalImage;
 
+    @Version
+    @Column(name = "VERSION", nullable = false)
+    private Long version;
+
+    @Column(name = "CREATED_AT", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    /**
+     * Moved on every change, images included, since those bump the version too.
+     */
+    @Column(name = "UPDATED_AT", nullable = false)
+    private Instant updatedAt;
+
     @ElementCollection
+    @OrderColumn(name = "IMAGE_ORDER")
     @Column(name = "OTHER_IMAGES")
     private List<String> otherImages;
 
+    @PrePersist
+    void prePersist() {
+        if (skuKey == null) {
+            skuKey = Sku.parse(sku);
+        }
+        // milliseconds, the precision the change cursors carry
+        createdAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    void preUpdate() {
+        updatedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
     public Product toDomain() {
         return Product.builder()
                 .sku(this.sku)
@@ -50,7 +97,9 @@ public class ProductEntity {
                 .size(this.size)
                 .price(this.price)
                 .principalImage(this.principalImage)
-                .otherImages(this.otherImages).build();
+                .otherImages(this.otherImages == null ? null : new ArrayList<>(this.otherImages))
+                .version(this.version)
+                .updatedAt(this.updatedAt).build();
     }
 
 }
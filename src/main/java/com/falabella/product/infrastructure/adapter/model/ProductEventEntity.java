@@ -0,0 +1,57 @@
+package com.falabella.product.infrastructure.adapter.model;
+
+import com.falabella.product.domain.model.ProductEvent;
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Outbox row written in the transaction of the change. The sequence is assigned once the row is
+ * committed, so consumers never see a later sequence before an earlier one.
+ *
+ * @author german
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@Entity
+@Table(name = "PRODUCT_EVENT", indexes = {
+        @Index(name = "IDX_PRODUCT_EVENT_SEQUENCE", columnList = "SEQUENCE_NUMBER", unique = true)
+})
+public class ProductEventEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "PRODUCT_EVENT_ID")
+    @SequenceGenerator(name = "PRODUCT_EVENT_ID", sequenceName = "PRODUCT_EVENT_ID_SEQ", allocationSize = 50)
+    @Column(name = "ID", nullable = false)
+    private Long id;
+
+    @Column(name = "SEQUENCE_NUMBER")
+    private Long sequence;
+
+    @Column(name = "SKU", length = 12, nullable = false)
+    private String sku;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "EVENT_TYPE", length = 10, nullable = false)
+    private ProductEvent.Type type;
+
+    @Column(name = "VERSION")
+    private Long version;
+
+    @Column(name = "CREATED_AT", nullable = false)
+    private Instant createdAt;
+
+    public ProductEvent toDomain() {
+        return ProductEvent.builder()
+                .sequence(this.sequence)
+                .sku(this.sku)
+                .type(this.type)
+                .version(this.version)
+                .createdAt(this.createdAt).build();
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.falabella.product.infrastructure.adapter.model;
+
+import com.falabella.product.domain.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of the product columns, without the other images that live in their own table. The
+ * columns a page did not select are {@code null}.
+ *
+ * @author german
+ */
+@Data
+@AllArgsConstructor
+@ToString
+public class ProductSummary {
+
+    private String sku;
+    private String name;
+    private String brand;
+    private String size;
+    private BigDecimal price;
+    private String principalImage;
+    private Long version;
+
+    public Product toDomain() {
+        return Product.builder()
+                .sku(sku)
+                .name(name)
+                .brand(brand)
+                .size(size)
+                .price(price)
+                .principalImage(principalImage)
+                .version(version).build();
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.falabella.product.infrastructure.adapter.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Marks a deleted product so incremental readers learn about the deletion.
+ *
+ * @author german
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@Entity
+@Table(name = "PRODUCT_TOMBSTONE", indexes = {
+        @Index(name = "IDX_PRODUCT_TOMBSTONE_DELETED_AT", columnList = "DELETED_AT, SKU")
+})
+public class ProductTombstoneEntity {
+
+    @Id
+    @Column(name = "SKU", length = 12, nullable = false)
+    private String sku;
+
+    @Column(name = "DELETED_AT", nullable = false)
+    private Instant deletedAt;
+
+}
@@ -0,0 +1,26 @@
+package com.falabella.product.infrastructure.adapter.model;
+
+import com.falabella.product.domain.model.Sku;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Stores a {@link Sku} as its numeric key.
+ *
+ * @author german
+ */
+@Converter
+public class SkuConverter implements AttributeConverter<Sku, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Sku sku) {
+        return sku == null ? null : sku.getKey();
+    }
+
+    @Override
+    public Sku convertToEntityAttribute(Long key) {
+        return key == null ? null : Sku.fromKey(key);
+    }
+
+}
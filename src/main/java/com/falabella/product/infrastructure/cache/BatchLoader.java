@@ -0,0 +1,217 @@
+package com.falabella.product.infrastructure.cache;
+
+import com.falabella.product.domain.error.ProductBackpressureException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Gathers single key loads for up to a window, or until a batch is full, and serves each batch
+ * with one call to the bulk load. A wider window saves round trips at the price of that much
+ * added latency on every load. One thread gathers the batches, a small pool runs them so the
+ * next batch fills while the previous one is being read. Both queues are bounded: with the pool
+ * busy and a batch waiting the gatherer runs the next batch itself, and once {@code queueCapacity}
+ * loads wait a new one is read alone on the caller thread. A caller waits at most {@code timeout}.
+ *
+ * @author german
+ */
+@Slf4j
+public final class BatchLoader<K, V> implements AutoCloseable {
+
+    static final String METRIC = "product.batch.loader.size";
+    static final String OVERFLOW_METRIC = "product.batch.loader.overflow";
+
+    private final String name;
+    private final Function<List<K>, Map<K, V>> bulkLoad;
+    private final int maxSize;
+    private final long windowNanos;
+    private final long timeoutNanos;
+    private final BlockingQueue<Load<K, V>> queue;
+    private final ExecutorService loaders;
+    private final Thread gatherer;
+    private final DistributionSummary batchSizes;
+    private final Counter overflows;
+    private volatile boolean closed;
+
+    public BatchLoader(String name, Function<List<K>, Map<K, V>> bulkLoad, int maxSize, Duration window,
+                       int parallelism, int queueCapacity, Duration timeout, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.bulkLoad = bulkLoad;
+        this.maxSize = maxSize;
+        this.windowNanos = window.toNanos();
+        this.timeoutNanos = timeout.toNanos();
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        AtomicInteger threads = new AtomicInteger();
+        this.loaders = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism), runnable -> {
+            Thread thread = new Thread(runnable, name + "-batch-loader-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, (batch, executor) -> {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException(name + " batch loader is closed");
+            }
+            // the gatherer stops gathering while it reads, new loads pile up in the queue meanwhile
+            batch.run();
+        });
+        this.batchSizes = DistributionSummary.builder(METRIC)
+                .description("Distinct keys per batch load")
+                .tag("name", name)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue((double) maxSize)
+                .register(meterRegistry);
+        this.overflows = Counter.builder(OVERFLOW_METRIC)
+                .description("Loads read alone because the queue was full")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.gatherer = new Thread(this::gather, name + "-batch-gatherer");
+        this.gatherer.setDaemon(true);
+        this.gatherer.start();
+    }
+
+    /**
+     * The value of the key, {@code null} when the bulk load has none. Blocks until its batch is read,
+     * or reads the key alone when the queue is full.
+     *
+     * @throws ProductBackpressureException when the batch is not read within the timeout
+     */
+    public V get(K key) {
+        Load<K, V> load = new Load<>(key);
+        if (!enqueue(load)) {
+            overflows.increment();
+            return bulkLoad.apply(List.of(key)).get(key);
+        }
+        try {
+            return load.future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            queue.remove(load);
+            throw new ProductBackpressureException("Batch load of " + name + " " + key + " timed out, retry later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(name + " batch load interrupted", e);
+        }
+    }
+
+    /**
+     * The pending value of the key, failed with a {@link RejectedExecutionException} when the queue is full.
+     */
+    public CompletableFuture<V> load(K key) {
+        Load<K, V> load = new Load<>(key);
+        if (!enqueue(load)) {
+            overflows.increment();
+            load.future.completeExceptionally(new RejectedExecutionException(name + " batch loader queue is full"));
+        }
+        return load.future;
+    }
+
+    /**
+     * Queues the load, {@code false} when the queue is full. A load refused for being closed fails at once.
+     */
+    private boolean enqueue(Load<K, V> load) {
+        if (closed) {
+            load.future.completeExceptionally(new IllegalStateException(name + " batch loader is closed"));
+            return true;
+        }
+        if (!queue.offer(load)) {
+            return false;
+        }
+        // closed in between, the gatherer may have already failed what was queued
+        if (closed && queue.remove(load)) {
+            load.future.completeExceptionally(new IllegalStateException(name + " batch loader is closed"));
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        gatherer.interrupt();
+        loaders.shutdown();
+    }
+
+    private void gather() {
+        while (!closed) {
+            List<Load<K, V>> batch = new ArrayList<>(maxSize);
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxSize) {
+                    if (queue.drainTo(batch, maxSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Load<K, V> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                fail(batch, new IllegalStateException(name + " batch loader is closed"));
+                break;
+            }
+            try {
+                loaders.execute(() -> run(batch));
+            } catch (RejectedExecutionException e) {
+                fail(batch, e);
+            }
+        }
+        List<Load<K, V>> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        fail(pending, new IllegalStateException(name + " batch loader is closed"));
+    }
+
+    private void run(List<Load<K, V>> batch) {
+        Set<K> keys = new LinkedHashSet<>();
+        batch.forEach(load -> keys.add(load.key));
+        batchSizes.record(keys.size());
+        try {
+            Map<K, V> values = bulkLoad.apply(new ArrayList<>(keys));
+            batch.forEach(load -> load.future.complete(values.get(load.key)));
+        } catch (RuntimeException e) {
+            log.warn("Batch load of {} {} keys failed", keys.size(), name, e);
+            fail(batch, e);
+        }
+    }
+
+    private static <K, V> void fail(List<Load<K, V>> loads, RuntimeException e) {
+        loads.forEach(load -> load.future.completeExceptionally(e));
+    }
+
+    private static final class Load<K, V> {
+
+        private final K key;
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+
+        Load(K key) {
+            this.key = key;
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.falabella.product.infrastructure.config;
+
+import com.falabella.product.domain.model.Product;
+import com.falabella.product.domain.model.Sku;
+import com.falabella.product.infrastructure.adapter.ProductRepository;
+import com.falabella.product.infrastructure.adapter.model.ProductEntity;
+import com.falabella.product.infrastructure.cache.BatchLoader;
+import com.falabella.product.infrastructure.cache.SingleFlight;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * @author german
+ */
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Products by sku, an empty value caches a miss so unknown skus do not reach the database.
+     */
+    @Bean
+    public Cache<String, Optional<Product>> productCache(@Value("${product.cache.maximum-size}") long maximumSize,
+                                                         @Value("${product.cache.ttl}") Duration ttl,
+                                                         @Value("${product.cache.negative-ttl}") Duration negativeTtl,
+                                                         MeterRegistry meterRegistry) {
+        Cache<String, Optional<Product>> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ProductExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "product");
+    }
+
+    /**
+     * Product loads in flight, shared by the concurrent misses of a sku.
+     */
+    @Bean
+    public SingleFlight<String, Optional<Product>> productLoads(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("product", meterRegistry);
+    }
+
+    /**
+     * Product loads of the cache misses, gathered into batches read with one statement.
+     */
+    @Bean
+    @Profile("!replica")
+    @ConditionalOnProperty(name = "product.batch-loader.enabled", havingValue = "true")
+    public BatchLoader<String, Product> productBatchLoader(ProductRepository repository,
+                                                           @Value("${product.batch-loader.max-size}") int maxSize,
+                                                           @Value("${product.batch-loader.window}") Duration window,
+                                                           @Value("${product.batch-loader.parallelism}") int parallelism,
+                                                           @Value("${product.batch-loader.queue-capacity}") int queueCapacity,
+                                                           @Value("${product.batch-loader.timeout}") Duration timeout,
+                                                           MeterRegistry meterRegistry) {
+        return new BatchLoader<>("product", skus -> repository
+                .findAllWithImagesBySkuKeyIn(skus.stream().map(Sku::parse).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(ProductEntity::getSku, ProductEntity::toDomain)),
+                maxSize, window, parallelism, queueCapacity, timeout, meterRegistry);
+    }
+
+    private static class ProductExpiry implements Expiry<String, Optional<Product>> {
+
+        private final long ttl;
+        private final long negativeTtl;
+
+        ProductExpiry(long ttl, long negativeTtl) {
+            this.ttl = ttl;
+            this.negativeTtl = negativeTtl;
+        }
+
+        @Override
+        public long expireAfterCreate(String sku, Optional<Product> product, long currentTime) {
+            return product.isPresent() ? ttl : negativeTtl;
+        }
+
+        @Override
+        public long expireAfterUpdate(String sku, Optional<Product> product, long currentTime, long currentDuration) {
+            return expireAfterCreate(sku, product, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String sku, Optional<Product> product, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+}
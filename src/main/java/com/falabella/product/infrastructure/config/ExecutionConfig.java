@@ -0,0 +1,57 @@
+package com.falabella.product.infrastructure.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Opt-in execution mode running request handling, and with it the blocking repository calls of
+ * the service, on virtual threads instead of the bounded Tomcat worker pool. Concurrency is then
+ * limited by the connection pool rather than by the number of platform threads.
+ *
+ * @author german
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "product.execution.virtual-threads", havingValue = "true")
+public class ExecutionConfig implements WebMvcConfigurer {
+
+    private final ExecutorService virtualThreadExecutor = VirtualThreads.newExecutor();
+
+    private final TaskDecorator statementCountingTaskDecorator;
+
+    public ExecutionConfig(TaskDecorator statementCountingTaskDecorator) {
+        this.statementCountingTaskDecorator = statementCountingTaskDecorator;
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        log.info("Handling requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    /**
+     * Streaming responses such as the export are written on virtual threads as well.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        TaskExecutorAdapter taskExecutor = new TaskExecutorAdapter(virtualThreadExecutor);
+        taskExecutor.setTaskDecorator(statementCountingTaskDecorator);
+        configurer.setTaskExecutor(taskExecutor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        virtualThreadExecutor.shutdown();
+    }
+
+}
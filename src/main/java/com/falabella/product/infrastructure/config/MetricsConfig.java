@@ -0,0 +1,52 @@
+package com.falabella.product.infrastructure.config;
+
+import com.falabella.product.infrastructure.metrics.StatementCountFilter;
+import com.falabella.product.infrastructure.metrics.StatementCounter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * @author german
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Backs the {@code @Timed} operations of the product service.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public StatementCounter statementCounter(MeterRegistry meterRegistry) {
+        return new StatementCounter(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    /**
+     * Applied to the async request executor, so statements of a streamed response count for its request.
+     */
+    @Bean
+    public TaskDecorator statementCountingTaskDecorator(StatementCounter statementCounter) {
+        return statementCounter::propagate;
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementCountFilter> statementCountFilter(StatementCounter statementCounter,
+                                                                             MeterRegistry meterRegistry) {
+        return new FilterRegistrationBean<>(new StatementCountFilter(statementCounter, meterRegistry));
+    }
+
+}
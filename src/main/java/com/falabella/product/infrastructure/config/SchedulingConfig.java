@@ -0,0 +1,12 @@
+package com.falabella.product.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * @author german
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
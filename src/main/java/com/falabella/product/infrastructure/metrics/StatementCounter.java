@@ -0,0 +1,81 @@
+package com.falabella.product.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts every statement Hibernate prepares, in total and for the request running on the current thread.
+ * A task handed to another thread counts for the request only through {@link #propagate(Runnable)}, which
+ * the async request executor applies, so the export streamed after the handler returns is counted. The
+ * batch loader threads are left out on purpose: one batch statement reads the keys of many requests, so
+ * its statements count in the total only.
+ *
+ * @author german
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<AtomicInteger> REQUEST_STATEMENTS = new ThreadLocal<>();
+
+    private final Counter statements;
+
+    public StatementCounter(MeterRegistry meterRegistry) {
+        this.statements = Counter.builder("product.db.statements")
+                .description("SQL statements sent to the database")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        statements.increment();
+        AtomicInteger requestStatements = REQUEST_STATEMENTS.get();
+        if (requestStatements != null) {
+            requestStatements.incrementAndGet();
+        }
+        return sql;
+    }
+
+    /**
+     * Starts counting the statements of the current thread, returning the count it adds to.
+     */
+    public AtomicInteger start() {
+        AtomicInteger requestStatements = new AtomicInteger();
+        REQUEST_STATEMENTS.set(requestStatements);
+        return requestStatements;
+    }
+
+    /**
+     * Stops counting on the current thread, returning the statements counted since {@link #start()}.
+     */
+    public int stop() {
+        AtomicInteger requestStatements = REQUEST_STATEMENTS.get();
+        REQUEST_STATEMENTS.remove();
+        return requestStatements == null ? 0 : requestStatements.get();
+    }
+
+    /**
+     * The task counting its statements for the request running on the current thread, whichever thread runs it.
+     */
+    public Runnable propagate(Runnable task) {
+        AtomicInteger requestStatements = REQUEST_STATEMENTS.get();
+        if (requestStatements == null) {
+            return task;
+        }
+        return () -> {
+            AtomicInteger previous = REQUEST_STATEMENTS.get();
+            REQUEST_STATEMENTS.set(requestStatements);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    REQUEST_STATEMENTS.remove();
+                } else {
+                    REQUEST_STATEMENTS.set(previous);
+                }
+            }
+        };
+    }
+
+}
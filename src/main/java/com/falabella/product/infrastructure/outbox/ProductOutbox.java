@@ -0,0 +1,204 @@
+package com.falabella.product.infrastructure.outbox;
+
+import com.falabella.product.domain.model.ProductEvent;
+import com.falabella.product.domain.model.ProductEventPage;
+import com.falabella.product.domain.port.ProductEventOperations;
+import com.falabella.product.infrastructure.adapter.ProductEventRepository;
+import com.falabella.product.infrastructure.adapter.model.ProductEventEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox of product changes. The service records an event in the transaction of each
+ * change; a single publisher thread then numbers the committed events in order and wakes the
+ * consumers waiting for them. Numbering after the commit keeps the sequence gap free for readers:
+ * a transaction that commits late is published after the ones already read, never behind them.
+ *
+ * @author german
+ */
+@Slf4j
+@Component
+@Profile("!replica")
+public class ProductOutbox implements ProductEventOperations {
+
+    private static final int PUBLISH_BATCH_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final ProductEventRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService publisher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean publishRequested = new AtomicBoolean();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private volatile long lastSequence = -1;
+
+    public ProductOutbox(ProductEventRepository repository, TransactionTemplate transactionTemplate) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Adds the event to the current transaction, {@link #publish()} once it committed.
+     */
+    public void record(String sku, ProductEvent.Type type, Long version) {
+        repository.save(ProductEventEntity.builder()
+                .sku(sku)
+                .type(type)
+                .version(version)
+                .createdAt(Instant.now()).build());
+    }
+
+    /**
+     * Publishes the committed events in the background, requests made while a run is queued share it.
+     */
+    public void publish() {
+        if (publishRequested.compareAndSet(false, true)) {
+            publisher.execute(() -> {
+                publishRequested.set(false);
+                publishCommitted();
+            });
+        }
+    }
+
+    /**
+     * Catches events committed without a publish request, such as those of a process that stopped in between.
+     */
+    @Scheduled(fixedDelayString = "${product.events.publish-interval}")
+    public void sweep() {
+        publish();
+    }
+
+    @Override
+    public ProductEventPage getEvents(long after, int limit) {
+        List<ProductEvent> events = repository
+                .findPublishedAfter(after, PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE))))
+                .stream()
+                .map(ProductEventEntity::toDomain)
+                .collect(Collectors.toList());
+        long next = events.isEmpty() ? after : events.get(events.size() - 1).getSequence();
+        return ProductEventPage.builder().events(events).next(next).build();
+    }
+
+    @Override
+    public CompletableFuture<ProductEventPage> awaitEvents(long after, int limit, Duration timeout) {
+        if (timeout.isZero() || timeout.isNegative()) {
+            return CompletableFuture.completedFuture(getEvents(after, limit));
+        }
+        // registered before reading so an event published in between still wakes it
+        Waiter waiter = new Waiter(after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        waiters.add(waiter);
+        waiter.future.whenComplete((page, e) -> waiters.remove(waiter));
+        try {
+            ProductEventPage page = getEvents(after, limit);
+            if (!page.getEvents().isEmpty()) {
+                waiter.future.complete(page);
+            }
+        } catch (RuntimeException e) {
+            waiter.future.completeExceptionally(e);
+        }
+        return waiter.future.completeOnTimeout(emptyPage(after), timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // lets a running publish finish while the data source is still open
+        publisher.shutdown();
+        publisher.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void publishCommitted() {
+        try {
+            if (lastSequence < 0) {
+                Long last = repository.findLastSequence();
+                lastSequence = last == null ? 0 : last;
+            }
+            int published;
+            do {
+                long from = lastSequence;
+                List<ProductEventEntity> events = transactionTemplate.execute(status -> {
+                    List<ProductEventEntity> unpublished = repository.findUnpublished(PageRequest.of(0, PUBLISH_BATCH_SIZE));
+                    long sequence = from;
+                    for (ProductEventEntity event : unpublished) {
+                        event.setSequence(++sequence);
+                    }
+                    return unpublished;
+                });
+                published = events.size();
+                lastSequence = from + published;
+            } while (published == PUBLISH_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            // another process may have numbered events meanwhile, such as the old primary of a rolling
+            // deploy; the next run starts again from the last sequence stored
+            lastSequence = -1;
+            log.error("Product events could not be published", e);
+        }
+        wakeWaiters();
+    }
+
+    private void wakeWaiters() {
+        Map<Long, List<Waiter>> waitersByCursor = new HashMap<>();
+        for (Waiter waiter : waiters) {
+            if (waiter.after < lastSequence && !waiter.future.isDone()) {
+                waitersByCursor.computeIfAbsent(waiter.after, after -> new ArrayList<>()).add(waiter);
+            }
+        }
+        // consumers tailing the same cursor share one read, the publisher runs one query per cursor
+        waitersByCursor.forEach((after, sameCursor) -> {
+            int limit = sameCursor.stream().mapToInt(waiter -> waiter.limit).max().orElse(1);
+            try {
+                ProductEventPage page = getEvents(after, limit);
+                sameCursor.forEach(waiter -> waiter.future.complete(firstEvents(page, waiter.limit)));
+            } catch (RuntimeException e) {
+                sameCursor.forEach(waiter -> waiter.future.completeExceptionally(e));
+            }
+        });
+    }
+
+    private static ProductEventPage firstEvents(ProductEventPage page, int limit) {
+        if (page.getEvents().size() <= limit) {
+            return page;
+        }
+        List<ProductEvent> events = page.getEvents().subList(0, limit);
+        return ProductEventPage.builder().events(events).next(events.get(limit - 1).getSequence()).build();
+    }
+
+    private static ProductEventPage emptyPage(long after) {
+        return ProductEventPage.builder().events(List.of()).next(after).build();
+    }
+
+    private static final class Waiter {
+
+        private final long after;
+        private final int limit;
+        private final CompletableFuture<ProductEventPage> future = new CompletableFuture<>();
+
+        Waiter(long after, int limit) {
+            this.after = after;
+            this.limit = limit;
+        }
+    }
+
+}
@@ -0,0 +1,219 @@
+package com.falabella.product.infrastructure.pricing;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of accepted prices, one {@code sku price} line each, split in numbered segments. A
+ * {@code sku -} line discards the price of the sku appended before it.
+ * Prices are appended to the open segment; {@link #rotate()} seals it so that, once a flush stored
+ * everything accepted before, the sealed segments can be deleted. Segments found on startup are
+ * left by a run that stopped before storing them and are replayed.
+ *
+ * @author german
+ */
+@Slf4j
+public class PriceJournal implements Closeable {
+
+    private static final String PREFIX = "prices-";
+    private static final String SUFFIX = ".journal";
+    private static final String DISCARDED = "-";
+
+    private final Path directory;
+    private final boolean fsync;
+    private final List<Path> sealed = new ArrayList<>();
+    private long nextSegment;
+    private Segment current;
+
+    /**
+     * @param fsync whether {@link #append(String, BigDecimal)} returns only once the line reached the disk,
+     *              without it a line survives the process but not the machine going down
+     */
+    public PriceJournal(Path directory, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.fsync = fsync;
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            sealed.addAll(files.filter(PriceJournal::isSegment)
+                    .sorted(Comparator.comparingLong(PriceJournal::segmentNumber))
+                    .collect(Collectors.toList()));
+        }
+        nextSegment = sealed.isEmpty() ? 0 : segmentNumber(sealed.get(sealed.size() - 1)) + 1;
+        current = openSegment();
+    }
+
+    /**
+     * Prices of the segments left by a previous run, oldest first, {@code null} for a discarded one. A line
+     * cut short by a crash is skipped.
+     */
+    public void replay(BiConsumer<String, BigDecimal> consumer) throws IOException {
+        List<Path> segments;
+        synchronized (this) {
+            segments = new ArrayList<>(sealed);
+        }
+        for (Path segment : segments) {
+            String content = new String(Files.readAllBytes(segment), StandardCharsets.US_ASCII);
+            int end = content.lastIndexOf('\n');
+            if (end < 0) {
+                continue;
+            }
+            for (String line : content.substring(0, end).split("\n")) {
+                int separator = line.indexOf(' ');
+                try {
+                    String price = line.substring(separator + 1);
+                    consumer.accept(line.substring(0, separator), DISCARDED.equals(price) ? null : new BigDecimal(price));
+                } catch (RuntimeException e) {
+                    log.warn("Skipped price journal line '{}' of {}", line, segment);
+                }
+            }
+        }
+    }
+
+    public void append(String sku, BigDecimal price) throws IOException {
+        ByteBuffer line = StandardCharsets.US_ASCII.encode(sku + ' ' + price.toPlainString() + '\n');
+        Segment segment;
+        long end;
+        synchronized (this) {
+            segment = current;
+            end = segment.write(line);
+        }
+        if (fsync) {
+            segment.sync(end);
+        }
+    }
+
+    /**
+     * Discards the prices of the skus appended so far. With fsync it waits for the disk like an append:
+     * a discard lost in a crash would replay a price older than the write that settled it.
+     */
+    public void discard(Collection<String> skus) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        skus.forEach(sku -> lines.append(sku).append(' ').append(DISCARDED).append('\n'));
+        ByteBuffer buffer = StandardCharsets.US_ASCII.encode(lines.toString());
+        Segment segment;
+        long end;
+        synchronized (this) {
+            segment = current;
+            end = segment.write(buffer);
+        }
+        if (fsync) {
+            segment.sync(end);
+        }
+    }
+
+    /**
+     * Seals the open segment and answers every sealed one, they hold all the prices appended so far.
+     * An open segment still empty is kept open.
+     */
+    public synchronized List<Path> rotate() throws IOException {
+        if (current.written > 0) {
+            current.close();
+            sealed.add(current.path);
+            current = openSegment();
+        }
+        return new ArrayList<>(sealed);
+    }
+
+    /**
+     * The sealed segments, without sealing the open one.
+     */
+    public synchronized List<Path> sealed() {
+        return new ArrayList<>(sealed);
+    }
+
+    /**
+     * Deletes sealed segments whose prices are stored.
+     */
+    public synchronized void delete(List<Path> segments) throws IOException {
+        for (Path segment : segments) {
+            Files.deleteIfExists(segment);
+            sealed.remove(segment);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        current.close();
+        if (Files.size(current.path) == 0) {
+            Files.delete(current.path);
+        }
+    }
+
+    private Segment openSegment() throws IOException {
+        Path path = directory.resolve(String.format("%s%019d%s", PREFIX, nextSegment++, SUFFIX));
+        return new Segment(path, FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final FileChannel channel;
+        private final Object syncLock = new Object();
+        // written under the journal lock, read by the writers syncing
+        private volatile long written;
+        private long synced;
+
+        Segment(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+
+        long write(ByteBuffer line) throws IOException {
+            long position = written;
+            while (line.hasRemaining()) {
+                position += channel.write(line);
+            }
+            written = position;
+            return position;
+        }
+
+        /**
+         * Group commit: a writer that finds its line already covered by the force of another returns at once.
+         */
+        void sync(long end) throws IOException {
+            synchronized (syncLock) {
+                if (synced >= end) {
+                    return;
+                }
+                long target = written;
+                channel.force(false);
+                synced = target;
+            }
+        }
+
+        void close() throws IOException {
+            synchronized (syncLock) {
+                channel.force(false);
+                synced = written;
+                channel.close();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,320 @@
+package com.falabella.product.infrastructure.pricing;
+
+import com.falabella.product.domain.error.ProductBackpressureException;
+import com.falabella.product.domain.model.ProductBatchResult;
+import com.falabella.product.domain.model.Sku;
+import com.falabella.product.domain.port.ProductPriceOperations;
+import com.falabella.product.infrastructure.service.ProductService;
+import com.falabella.product.infrastructure.service.ProductWriteEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind buffer of price updates. An accepted price waits in a map keyed by sku, so a burst
+ * of prices for one sku leaves only the last one, and a scheduled flush stores everything waiting
+ * in JDBC batches. Once {@code capacity} skus are waiting new skus are refused until the next flush.
+ * With the journal enabled a price is on disk before it is accepted: accepting then appends under the
+ * journal lock and, with fsync, waits for the disk, sharing the force with the prices appended meanwhile.
+ * A write of the whole product settles the price of its sku: a price accepted before it is dropped,
+ * also when the flush already took it, and put back if the write rolls back.
+ *
+ * @author german
+ */
+@Slf4j
+@Component
+@Profile("!replica")
+@ConditionalOnProperty(name = "product.price-updates.write-behind", havingValue = "true")
+public class PriceUpdateBuffer implements ProductPriceOperations {
+
+    private static final String METRIC = "product.price.updates";
+
+    private final ProductService productService;
+    private final int capacity;
+    private final PriceJournal journal;
+    private final ConcurrentMap<String, BigDecimal> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    // skus written since the current flush began, their drained prices are older than the write
+    private final Set<String> superseded = ConcurrentHashMap.newKeySet();
+    // accepted prices and settling writes share it, the rotation, drain and retries of a flush hold it alone
+    private final ReadWriteLock settling = new ReentrantReadWriteLock();
+    // guarded by the flush
+    private boolean lastFlushStored = true;
+    private final Counter queued;
+    private final Counter coalesced;
+    private final Counter rejected;
+    private final Counter stored;
+    private final Counter dropped;
+    private final Counter settled;
+
+    public PriceUpdateBuffer(ProductService productService,
+                             @Value("${product.price-updates.capacity}") int capacity,
+                             @Value("${product.price-updates.journal.enabled}") boolean journalEnabled,
+                             @Value("${product.price-updates.journal.path}") String journalPath,
+                             @Value("${product.price-updates.journal.fsync}") boolean fsync,
+                             MeterRegistry meterRegistry) throws IOException {
+        this.productService = productService;
+        this.capacity = capacity;
+        this.queued = counter(meterRegistry, "queued");
+        this.coalesced = counter(meterRegistry, "coalesced");
+        this.rejected = counter(meterRegistry, "rejected");
+        this.stored = counter(meterRegistry, "stored");
+        this.dropped = counter(meterRegistry, "dropped");
+        this.settled = counter(meterRegistry, "superseded");
+        Gauge.builder(METRIC + ".pending", size, AtomicInteger::get)
+                .description("Skus whose price is waiting to be stored")
+                .register(meterRegistry);
+        this.journal = journalEnabled ? new PriceJournal(Paths.get(journalPath), fsync) : null;
+        if (journal != null) {
+            // later lines of a sku replace the earlier ones, as they did when accepted
+            journal.replay((sku, price) -> {
+                if (price == null) {
+                    if (pending.remove(sku) != null) {
+                        size.decrementAndGet();
+                    }
+                } else if (pending.put(sku, price) == null) {
+                    size.incrementAndGet();
+                }
+            });
+            if (size.get() > 0) {
+                log.info("Replayed {} price updates from the journal", size.get());
+            }
+        }
+    }
+
+    @Override
+    public void updatePrice(String sku, BigDecimal price) {
+        if (!Sku.isValid(sku)) {
+            // could never be stored, nor written to the journal as a line
+            dropped.increment();
+            return;
+        }
+        // a flush rotates the journal and drains the queue alone, so the line and the price it
+        // journals end up in the same segment and drain
+        settling.readLock().lock();
+        try {
+            boolean reserved = !pending.containsKey(sku);
+            if (reserved && size.incrementAndGet() > capacity) {
+                size.decrementAndGet();
+                rejected.increment();
+                throw new ProductBackpressureException("Too many price updates waiting, retry later");
+            }
+            // journaled before queueing: a price the journal refused is never stored
+            if (journal != null) {
+                try {
+                    journal.append(sku, price);
+                } catch (IOException e) {
+                    if (reserved) {
+                        size.decrementAndGet();
+                    }
+                    throw new UncheckedIOException("Price of sku " + sku + " could not be journaled", e);
+                }
+            }
+            // another request may have added or settled the sku since the check
+            if (pending.put(sku, price) != null) {
+                if (reserved) {
+                    size.decrementAndGet();
+                }
+                coalesced.increment();
+            } else {
+                if (!reserved) {
+                    size.incrementAndGet();
+                }
+                queued.increment();
+            }
+        } finally {
+            settling.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the prices of the skus about to be written whole. Called before the write commits, so a
+     * flush that reads the written products leaves them alone. When the write rolls back instead the
+     * dropped prices wait again, unless a newer price was accepted meanwhile.
+     */
+    @EventListener
+    public void settle(ProductWriteEvent event) {
+        List<String> skus = event.getSkus().stream().filter(Sku::isValid).collect(Collectors.toList());
+        Map<String, BigDecimal> settledPrices = new HashMap<>();
+        settling.readLock().lock();
+        try {
+            for (String sku : skus) {
+                BigDecimal price = pending.remove(sku);
+                if (price != null) {
+                    size.decrementAndGet();
+                    settled.increment();
+                    settledPrices.put(sku, price);
+                }
+                superseded.add(sku);
+            }
+        } finally {
+            settling.readLock().unlock();
+        }
+        if (journal != null && !skus.isEmpty()) {
+            try {
+                journal.discard(skus);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Prices of skus " + skus + " could not be discarded", e);
+            }
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        restore(skus, settledPrices);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Stores the waiting prices. Prices that failed wait for the next flush, and the journal
+     * keeps them until a flush stores everything.
+     */
+    @Scheduled(fixedDelayString = "${product.price-updates.flush-interval}")
+    public synchronized void flush() {
+        try {
+            // after a failed flush the prices accepted since stay in the open segment, a flush per
+            // interval failing against an unavailable database does not leave a segment each
+            List<Path> segments;
+            Map<String, BigDecimal> prices;
+            settling.writeLock().lock();
+            try {
+                segments = journal == null ? List.of() : lastFlushStored ? journal.rotate() : journal.sealed();
+                superseded.clear();
+                prices = drain();
+            } finally {
+                settling.writeLock().unlock();
+            }
+            lastFlushStored = prices.isEmpty() || store(prices);
+            if (lastFlushStored && journal != null) {
+                journal.delete(segments);
+            }
+        } catch (IOException e) {
+            log.error("Price journal could not be rotated", e);
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        flush();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private void restore(List<String> skus, Map<String, BigDecimal> prices) {
+        settling.readLock().lock();
+        try {
+            superseded.removeAll(skus);
+            prices.forEach((sku, price) -> {
+                if (pending.putIfAbsent(sku, price) == null) {
+                    size.incrementAndGet();
+                }
+            });
+        } finally {
+            settling.readLock().unlock();
+        }
+        if (journal != null && !prices.isEmpty()) {
+            // the discard lines are on disk already, the prices go after them again
+            try {
+                for (Map.Entry<String, BigDecimal> entry : prices.entrySet()) {
+                    journal.append(entry.getKey(), entry.getValue());
+                }
+            } catch (IOException e) {
+                log.error("Prices of skus {} restored after a rolled back write could not be journaled", prices.keySet(), e);
+            }
+        }
+    }
+
+    private Map<String, BigDecimal> drain() {
+        Map<String, BigDecimal> prices = new HashMap<>();
+        for (String sku : pending.keySet()) {
+            BigDecimal price = pending.remove(sku);
+            if (price != null) {
+                size.decrementAndGet();
+                prices.put(sku, price);
+            }
+        }
+        return prices;
+    }
+
+    private boolean store(Map<String, BigDecimal> prices) {
+        List<ProductBatchResult> results;
+        try {
+            results = productService.updatePrices(prices, superseded::contains);
+        } catch (RuntimeException e) {
+            log.error("Prices could not be stored", e);
+            prices.forEach(this::retry);
+            return false;
+        }
+        boolean allStored = true;
+        for (ProductBatchResult result : results) {
+            if (superseded.contains(result.getSku())) {
+                settled.increment();
+            } else if (result.getStatus() == ProductBatchResult.Status.UPDATED) {
+                stored.increment();
+            } else if (result.getStatus() == ProductBatchResult.Status.NOT_FOUND) {
+                dropped.increment();
+                log.warn("Price of sku {} dropped, the product is not stored", result.getSku());
+            } else {
+                log.error("Price of sku {} could not be stored: {}", result.getSku(), result.getDetails());
+                retry(result.getSku(), prices.get(result.getSku()));
+                allStored = false;
+            }
+        }
+        return allStored;
+    }
+
+    private void retry(String sku, BigDecimal price) {
+        settling.writeLock().lock();
+        try {
+            // a price accepted since the drain is newer and stays, a product written since then is too
+            if (!superseded.contains(sku) && pending.putIfAbsent(sku, price) == null) {
+                size.incrementAndGet();
+            }
+        } finally {
+            settling.writeLock().unlock();
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(METRIC)
+                .description("Price updates by what became of them")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+}
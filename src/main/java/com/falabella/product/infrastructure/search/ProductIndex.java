@@ -0,0 +1,561 @@
+package com.falabella.product.infrastructure.search;
+
+import com.falabella.product.domain.model.Product;
+import com.falabella.product.domain.model.ProductSearchQuery;
+import com.falabella.product.domain.model.Sku;
+import lombok.Builder;
+import lombok.Data;
+import lombok.ToString;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * In-memory inverted index over the name, brand and size of every product. Terms are kept
+ * sorted so a prefix is a range of the dictionary, and each term points to the sorted ids of
+ * the products containing it. Brand and price are kept per product for filtering and facets, and
+ * each brand points to the sorted ids of its products as well. A search walks the ids of its
+ * narrowest term or of its brand only, so it needs a text or a brand.
+ * The id of a removed product is given to the next new one.
+ *
+ * @author german
+ */
+@Component
+public class ProductIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // replaced as a whole by a rebuild
+    private NavigableMap<String, Postings> terms = new TreeMap<>();
+    private DocIds docIds = new DocIds();
+    private List<String> skus = new ArrayList<>();
+    private List<Set<String>> docTerms = new ArrayList<>();
+    private Map<String, Integer> brandOrdinals = new HashMap<>();
+    private List<String> brandNames = new ArrayList<>();
+    private List<Postings> brandDocs = new ArrayList<>();
+    private int[] brandOf = new int[16];
+    private double[] priceOf = new double[16];
+    private int[] freeDocs = new int[16];
+    private int freeCount;
+    // set while a rebuild reads the products, the writes meanwhile reach it too
+    private ProductIndex rebuilding;
+    // skus written to the index being rebuilt, what the rebuild read of them is older
+    private Set<String> written;
+
+    public void index(Product product) {
+        lock.writeLock().lock();
+        try {
+            add(product);
+            if (rebuilding != null) {
+                rebuilding.write(product.getSku(), () -> rebuilding.add(product));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String sku) {
+        lock.writeLock().lock();
+        try {
+            delete(sku);
+            if (rebuilding != null) {
+                rebuilding.write(sku, () -> rebuilding.delete(sku));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes the products passed by {@code export} into a new index and then takes its place at once,
+     * searches meanwhile still see the current one. Writes during the rebuild reach both indexes and win
+     * over what the export read before them.
+     */
+    public synchronized void rebuild(Consumer<Consumer<Product>> export) {
+        ProductIndex rebuilt = new ProductIndex();
+        rebuilt.written = new HashSet<>();
+        lock.writeLock().lock();
+        try {
+            rebuilding = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            export.accept(rebuilt::read);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                rebuilding = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        // no write can fall between the end of the rebuild and the swap
+        lock.writeLock().lock();
+        try {
+            rebuilding = null;
+            terms = rebuilt.terms;
+            docIds = rebuilt.docIds;
+            skus = rebuilt.skus;
+            docTerms = rebuilt.docTerms;
+            brandOrdinals = rebuilt.brandOrdinals;
+            brandNames = rebuilt.brandNames;
+            brandDocs = rebuilt.brandDocs;
+            brandOf = rebuilt.brandOf;
+            priceOf = rebuilt.priceOf;
+            freeDocs = rebuilt.freeDocs;
+            freeCount = rebuilt.freeCount;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            docIds.clear();
+            skus.clear();
+            docTerms.clear();
+            brandOrdinals.clear();
+            brandNames.clear();
+            brandDocs.clear();
+            freeCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Products matching every word of the text as a prefix and the brand. Without words the products
+     * of the brand are walked, and the brand facets count that brand only; with neither nothing matches.
+     */
+    public Hits search(ProductSearchQuery query) {
+        Set<String> queryTerms = new LinkedHashSet<>();
+        tokenize(query.getText(), queryTerms);
+        double minPrice = query.getMinPrice() == null ? Double.NEGATIVE_INFINITY : query.getMinPrice().doubleValue();
+        double maxPrice = query.getMaxPrice() == null ? Double.POSITIVE_INFINITY : query.getMaxPrice().doubleValue();
+        boolean priceFilter = query.getMinPrice() != null || query.getMaxPrice() != null;
+        lock.readLock().lock();
+        try {
+            int brandFilter = query.getBrand() == null
+                    ? -1 : brandOrdinals.getOrDefault(query.getBrand().toLowerCase(Locale.ROOT), -2);
+            int[] brandCounts = new int[brandNames.size()];
+            List<String> hits = new ArrayList<>(Math.min(query.getLimit(), 64));
+            int[] total = new int[1];
+            IntConsumer collector = doc -> {
+                // NaN fails both comparisons, so products without price never match a price range
+                if (priceFilter && !(priceOf[doc] >= minPrice && priceOf[doc] <= maxPrice)) {
+                    return;
+                }
+                int brand = brandOf[doc];
+                if (brand >= 0) {
+                    brandCounts[brand]++;
+                }
+                if (brandFilter != -1 && brand != brandFilter) {
+                    return;
+                }
+                total[0]++;
+                if (hits.size() < query.getLimit()) {
+                    hits.add(skus.get(doc));
+                }
+            };
+            if (!queryTerms.isEmpty()) {
+                matchAll(queryTerms, collector);
+            } else if (brandFilter >= 0) {
+                brandDocs.get(brandFilter).forEach(collector);
+            }
+            return Hits.builder().skus(hits).total(total[0]).brands(brandFacets(brandCounts)).build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void read(Product product) {
+        lock.writeLock().lock();
+        try {
+            if (!written.contains(product.getSku())) {
+                add(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write(String sku, Runnable change) {
+        lock.writeLock().lock();
+        try {
+            written.add(sku);
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Product product) {
+        long skuKey = Sku.toKey(product.getSku());
+        if (skuKey < 0) {
+            // only stored products are indexed and their skus are always valid
+            return;
+        }
+        int docId = docIds.get(skuKey);
+        int doc;
+        if (docId < 0) {
+            if (freeCount > 0) {
+                doc = freeDocs[--freeCount];
+                skus.set(doc, product.getSku());
+            } else {
+                doc = skus.size();
+                skus.add(product.getSku());
+                docTerms.add(null);
+                ensureCapacity(doc + 1);
+            }
+            docIds.put(skuKey, doc);
+        } else {
+            doc = docId;
+            unindex(doc);
+        }
+        Set<String> productTerms = new LinkedHashSet<>();
+        tokenize(product.getName(), productTerms);
+        tokenize(product.getBrand(), productTerms);
+        tokenize(product.getSize(), productTerms);
+        productTerms.forEach(term -> terms.computeIfAbsent(term, key -> new Postings()).add(doc));
+        docTerms.set(doc, productTerms);
+        brandOf[doc] = product.getBrand() == null ? -1 : brandOrdinal(product.getBrand());
+        if (brandOf[doc] >= 0) {
+            brandDocs.get(brandOf[doc]).add(doc);
+        }
+        priceOf[doc] = product.getPrice() == null ? Double.NaN : product.getPrice().doubleValue();
+    }
+
+    private void delete(String sku) {
+        int doc = docIds.remove(Sku.toKey(sku));
+        if (doc >= 0) {
+            unindex(doc);
+            skus.set(doc, null);
+            docTerms.set(doc, null);
+            if (freeCount == freeDocs.length) {
+                freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+            }
+            freeDocs[freeCount++] = doc;
+        }
+    }
+
+    /**
+     * Passes the ids matching every query term, in order. The term with the fewest ids drives: only its
+     * ids are walked, each kept when the terms of its product match the other query terms too.
+     */
+    private void matchAll(Set<String> queryTerms, IntConsumer matches) {
+        String driver = null;
+        int driverSize = Integer.MAX_VALUE;
+        for (String queryTerm : queryTerms) {
+            int size = 0;
+            for (Postings postings : prefixed(queryTerm).values()) {
+                size += postings.size;
+            }
+            if (size < driverSize) {
+                driver = queryTerm;
+                driverSize = size;
+            }
+        }
+        String driverTerm = driver;
+        String[] others = queryTerms.stream().filter(queryTerm -> !queryTerm.equals(driverTerm)).toArray(String[]::new);
+        IntConsumer filtered = others.length == 0 ? matches : doc -> {
+            if (matchesAll(docTerms.get(doc), others)) {
+                matches.accept(doc);
+            }
+        };
+        Collection<Postings> driverPostings = prefixed(driver).values();
+        if (driverPostings.size() == 1) {
+            driverPostings.iterator().next().forEach(filtered);
+        } else if (driverSize > skus.size() / 256) {
+            // a prefix spanning many terms: marking their ids in a bitmap of the catalog is cheaper
+            // than sorting them, and hands them out in order with a product under several terms once
+            BitSet docs = new BitSet(skus.size());
+            driverPostings.forEach(postings -> postings.addTo(docs));
+            for (int doc = docs.nextSetBit(0); doc >= 0; doc = docs.nextSetBit(doc + 1)) {
+                filtered.accept(doc);
+            }
+        } else if (driverSize > 0) {
+            int[] docs = new int[driverSize];
+            int count = 0;
+            for (Postings postings : driverPostings) {
+                System.arraycopy(postings.docs, 0, docs, count, postings.size);
+                count += postings.size;
+            }
+            Arrays.sort(docs);
+            for (int i = 0; i < count; i++) {
+                if (i == 0 || docs[i] != docs[i - 1]) {
+                    filtered.accept(docs[i]);
+                }
+            }
+        }
+    }
+
+    private NavigableMap<String, Postings> prefixed(String prefix) {
+        return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+    }
+
+    private static boolean matchesAll(Set<String> productTerms, String[] queryTerms) {
+        for (String queryTerm : queryTerms) {
+            boolean matches = false;
+            for (String productTerm : productTerms) {
+                if (productTerm.startsWith(queryTerm)) {
+                    matches = true;
+                    break;
+                }
+            }
+            if (!matches) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Map<String, Integer> brandFacets(int[] brandCounts) {
+        List<Integer> brands = new ArrayList<>();
+        for (int brand = 0; brand < brandCounts.length; brand++) {
+            if (brandCounts[brand] > 0) {
+                brands.add(brand);
+            }
+        }
+        brands.sort(Comparator.<Integer>comparingInt(brand -> brandCounts[brand]).reversed()
+                .thenComparing(brandNames::get));
+        Map<String, Integer> facets = new LinkedHashMap<>();
+        brands.forEach(brand -> facets.put(brandNames.get(brand), brandCounts[brand]));
+        return facets;
+    }
+
+    private void unindex(int doc) {
+        Set<String> previousTerms = docTerms.get(doc);
+        if (previousTerms != null) {
+            previousTerms.forEach(term -> {
+                Postings postings = terms.get(term);
+                postings.remove(doc);
+                if (postings.isEmpty()) {
+                    terms.remove(term);
+                }
+            });
+            if (brandOf[doc] >= 0) {
+                brandDocs.get(brandOf[doc]).remove(doc);
+            }
+        }
+    }
+
+    private int brandOrdinal(String brand) {
+        return brandOrdinals.computeIfAbsent(brand.toLowerCase(Locale.ROOT), key -> {
+            brandNames.add(brand);
+            brandDocs.add(new Postings());
+            return brandNames.size() - 1;
+        });
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > brandOf.length) {
+            int newCapacity = Math.max(capacity, brandOf.length * 2);
+            brandOf = Arrays.copyOf(brandOf, newCapacity);
+            priceOf = Arrays.copyOf(priceOf, newCapacity);
+        }
+    }
+
+    /**
+     * Lower cased runs of letters and digits.
+     */
+    static void tokenize(String text, Set<String> tokens) {
+        if (text == null) {
+            return;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+    }
+
+    /**
+     * Matching skus up to the query limit, in the order of their ids.
+     */
+    @Data
+    @Builder
+    @ToString
+    public static class Hits {
+
+        private List<String> skus;
+        private int total;
+        private Map<String, Integer> brands;
+
+    }
+
+    /**
+     * Product ids by sku key, open addressing over primitive arrays so a lookup neither boxes nor hashes a string.
+     */
+    private static final class DocIds {
+
+        private static final long EMPTY = 0;
+
+        private long[] keys = new long[16];
+        private int[] docs = new int[16];
+        private int size;
+
+        int get(long key) {
+            if (key <= 0) {
+                return -1;
+            }
+            for (int slot = slot(key); keys[slot] != EMPTY; slot = (slot + 1) & (keys.length - 1)) {
+                if (keys[slot] == key) {
+                    return docs[slot];
+                }
+            }
+            return -1;
+        }
+
+        void put(long key, int doc) {
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int slot = slot(key);
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            if (keys[slot] == EMPTY) {
+                size++;
+            }
+            keys[slot] = key;
+            docs[slot] = doc;
+        }
+
+        int remove(long key) {
+            if (key <= 0) {
+                return -1;
+            }
+            int mask = keys.length - 1;
+            int slot = slot(key);
+            while (keys[slot] != key) {
+                if (keys[slot] == EMPTY) {
+                    return -1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            int doc = docs[slot];
+            // shift back the entries that probed past the freed slot so lookups never stop early
+            for (int next = (slot + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+                int home = slot(keys[next]);
+                if (((next - home) & mask) >= ((next - slot) & mask)) {
+                    keys[slot] = keys[next];
+                    docs[slot] = docs[next];
+                    slot = next;
+                }
+            }
+            keys[slot] = EMPTY;
+            size--;
+            return doc;
+        }
+
+        void clear() {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash >>> 32) & (keys.length - 1);
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldDocs = docs;
+            keys = new long[capacity];
+            docs = new int[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldDocs[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorted product ids, appended in order as products are first indexed.
+     */
+    private static final class Postings {
+
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            int index = size == 0 || docs[size - 1] < doc ? size : Arrays.binarySearch(docs, 0, size, doc);
+            if (index >= 0 && index < size) {
+                return;
+            }
+            index = index < 0 ? -index - 1 : index;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            System.arraycopy(docs, index, docs, index + 1, size - index);
+            docs[index] = doc;
+            size++;
+        }
+
+        void remove(int doc) {
+            int index = Arrays.binarySearch(docs, 0, size, doc);
+            if (index >= 0) {
+                System.arraycopy(docs, index + 1, docs, index, size - index - 1);
+                size--;
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void addTo(BitSet bits) {
+            for (int i = 0; i < size; i++) {
+                bits.set(docs[i]);
+            }
+        }
+
+        void forEach(IntConsumer consumer) {
+            for (int i = 0; i < size; i++) {
+                consumer.accept(docs[i]);
+            }
+        }
+    }
+
+}
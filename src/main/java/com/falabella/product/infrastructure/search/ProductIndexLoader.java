@@ -0,0 +1,37 @@
+package com.falabella.product.infrastructure.search;
+
+import com.falabella.product.domain.port.ProductOperations;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the search index from the repository at startup, from then on the service keeps it up to date.
+ * A replica that serves search rebuilds it from every new snapshot instead.
+ *
+ * @author german
+ */
+@Slf4j
+@Component
+@Profile("!replica")
+public class ProductIndexLoader {
+
+    private final ProductOperations productOperations;
+    private final ProductIndex productIndex;
+
+    public ProductIndexLoader(ProductOperations productOperations, ProductIndex productIndex) {
+        this.productOperations = productOperations;
+        this.productIndex = productIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        // searches keep finding the products of the current index until the rebuilt one replaces it
+        productIndex.rebuild(productOperations::exportProducts);
+        log.info("Indexed {} products in {} ms", productIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+}
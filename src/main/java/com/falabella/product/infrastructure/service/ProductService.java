@@ -1,71 +1,534 @@
 package com.falabella.product.infrastructure.service;
 
+import com.falabella.product.domain.error.ProductConflictException;
 import com.falabella.product.domain.error.ProductNotFoundException;
 import com.falabella.product.domain.model.Product;
+import com.falabella.product.domain.model.ProductBatchResult;
+import com.falabella.product.domain.model.ProductChange;
+import com.falabella.product.domain.model.ProductChangePage;
+import com.falabella.product.domain.model.ProductChangeQuery;
+import com.falabella.product.domain.model.ProductEvent;
+import com.falabella.product.domain.model.ProductLookup;
+import com.falabella.product.domain.model.ProductPage;
+import com.falabella.product.domain.model.ProductQuery;
+import com.falabella.product.domain.model.ProductSearchQuery;
+import com.falabella.product.domain.model.ProductSearchResult;
+import com.falabella.product.domain.model.Sku;
+import com.falabella.product.domain.port.ProductChangeOperations;
 import com.falabella.product.domain.port.ProductOperations;
 import com.falabella.product.infrastructure.adapter.ProductRepository;
+import com.falabella.product.infrastructure.adapter.ProductTombstoneRepository;
 import com.falabella.product.infrastructure.adapter.model.ProductEntity;
+import com.falabella.product.infrastructure.adapter.model.ProductSummary;
+import com.falabella.product.infrastructure.adapter.model.ProductTombstoneEntity;
+import com.falabella.product.infrastructure.cache.BatchLoader;
+import com.falabella.product.infrastructure.cache.SingleFlight;
+import com.falabella.product.infrastructure.outbox.ProductOutbox;
+import com.falabella.product.infrastructure.search.ProductIndex;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @author german
  */
 @Service
-public class ProductService implements ProductOperations {
+@Profile("!replica")
+public class ProductService implements ProductOperations, ProductChangeOperations {
+
+    private static final String OPERATIONS_TIMER = "product.operations";
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final int BATCH_CHUNK_SIZE = 500;
+    private static final int EVICTION_STRIPES = 1024;
 
     private final ProductRepository repository;
+    private final ProductTombstoneRepository tombstoneRepository;
+    private final EntityManager entityManager;
+    private final Cache<String, Optional<Product>> productCache;
+    private final SingleFlight<String, Optional<Product>> productLoads;
+    private final BatchLoader<String, Product> productBatchLoader;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductIndex productIndex;
+    private final ProductOutbox outbox;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration changesSafetyLag;
+    // evictions counted per stripe of skus, a load caches what it read only if none happened meanwhile
+    private final AtomicLongArray evictions = new AtomicLongArray(EVICTION_STRIPES);
 
-    public ProductService(ProductRepository repository) {
+    public ProductService(ProductRepository repository, ProductTombstoneRepository tombstoneRepository,
+                          EntityManager entityManager, Cache<String, Optional<Product>> productCache,
+                          SingleFlight<String, Optional<Product>> productLoads,
+                          Optional<BatchLoader<String, Product>> productBatchLoader, TransactionTemplate transactionTemplate,
+                          ProductIndex productIndex, ProductOutbox outbox, ApplicationEventPublisher eventPublisher,
+                          @Value("${product.changes.safety-lag}") Duration changesSafetyLag) {
         this.repository = repository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.entityManager = entityManager;
+        this.productCache = productCache;
+        this.productLoads = productLoads;
+        this.productBatchLoader = productBatchLoader.orElse(null);
+        this.transactionTemplate = transactionTemplate;
+        this.productIndex = productIndex;
+        this.outbox = outbox;
+        this.eventPublisher = eventPublisher;
+        this.changesSafetyLag = changesSafetyLag;
     }
 
     @Override
+    @Timed(value = OPERATIONS_TIMER, histogram = true)
+    @Transactional
     public Product saveProduct(Product product) {
-        ProductEntity productEntity = repository.save(buildEntity(product));
-        return productEntity.toDomain();
+        Optional<ProductEntity> existingEntity = findEntity(product.getSku());
+        ProductEntity productEntity = existingEntity
+                .map(entity -> {
+                    copyToEntity(product, entity);
+                    return entity;
+                })
+                .orElseGet(() -> repository.save(buildEntity(product)));
+        entityManager.flush();
+        beforeCommit(new ProductWriteEvent(List.of(product.getSku())));
+        Product savedProduct = productEntity.toDomain();
+        outbox.record(savedProduct.getSku(), existingEntity.isPresent() ? ProductEvent.Type.UPDATED : ProductEvent.Type.CREATED,
+                savedProduct.getVersion());
+        afterCommit(() -> {
+            evict(product.getSku());
+            productIndex.index(savedProduct);
+            outbox.publish();
+        });
+        return savedProduct;
+    }
+
+    @Override
+    @Timed(value = OPERATIONS_TIMER, histogram = true)
+    public List<ProductBatchResult> saveProducts(List<Product> products) {
+        List<ProductBatchResult> results = new ArrayList<>(products.size());
+        for (int from = 0; from < products.size(); from += BATCH_CHUNK_SIZE) {
+            List<Product> chunk = products.subList(from, Math.min(from + BATCH_CHUNK_SIZE, products.size()));
+            results.addAll(saveChunk(chunk));
+        }
+        return results;
+    }
+
+    /**
+     * Sets the price of each sku, a chunk at a time like {@link #saveProducts(List)}. Only the products
+     * whose price differs are written and get an event.
+     *
+     * @param superseded asked once the products are read, a sku written meanwhile keeps the newer price
+     */
+    @Timed(value = OPERATIONS_TIMER, histogram = true)
+    public List<ProductBatchResult> updatePrices(Map<String, BigDecimal> prices, Predicate<String> superseded) {
+        List<String> skus = new ArrayList<>(prices.keySet());
+        List<ProductBatchResult> results = new ArrayList<>(skus.size());
+        for (int from = 0; from < skus.size(); from += BATCH_CHUNK_SIZE) {
+            List<String> chunk = skus.subList(from, Math.min(from + BATCH_CHUNK_SIZE, skus.size()));
+            results.addAll(updatePriceChunk(chunk, prices, superseded));
+        }
+        return results;
     }
 
     @Override
+    @Timed(value = OPERATIONS_TIMER, histogram = true)
     public Product getProductBySku(String sku) {
-        return getProductEntityBySku(sku).toDomain();
+        Optional<Product> product = productCache.getIfPresent(sku);
+        if (product == null) {
+            // concurrent misses of one sku wait on a single load instead of each reaching the database; the
+            // load runs outside the cache, whose own loading would hold a lock of its map for the whole read
+            product = productLoads.execute(sku, () -> {
+                long evicted = evictions.get(stripe(sku));
+                Optional<Product> loaded = loadProduct(sku);
+                cacheUnlessEvicted(sku, loaded, evicted);
+                return loaded;
+            });
+        }
+        return product.orElseThrow(() -> productNotFound(sku));
+    }
+
+    @Override
+    @Timed(value = OPERATIONS_TIMER, histogram = true)
+    public ProductLookup getProductsBySkus(Collection<String> skus) {
+        Set<String> skuSet = new LinkedHashSet<>(skus);
+        Map<String, Optional<Product>> productMap = new HashMap<>(productCache.getAllPresent(skuSet));
+        List<String> uncachedSkus = skuSet.stream()
+                .filter(sku -> !productMap.containsKey(sku))
+                .collect(Collectors.toList());
+        if (!uncachedSkus.isEmpty()) {
+            long[] evicted = uncachedSkus.stream().mapToLong(sku -> evictions.get(stripe(sku))).toArray();
+            List<Sku> skuKeys = skuKeys(uncachedSkus);
+            if (!skuKeys.isEmpty()) {
+                repository.findAllWithImagesBySkuKeyIn(skuKeys)
+                        .forEach(productEntity -> productMap.put(productEntity.getSku(), Optional.of(productEntity.toDomain())));
+            }
+            for (int i = 0; i < uncachedSkus.size(); i++) {
+                String sku = uncachedSkus.get(i);
+                cacheUnlessEvicted(sku, productMap.computeIfAbsent(sku, key -> Optional.empty()), evicted[i]);
+            }
+        }
+        List<Product> productList = new ArrayList<>(skuSet.size());
+        List<String> missing = new ArrayList<>();
+        skuSet.forEach(sku -> productMap.get(sku).ifPresentOrElse(productList::add, () -> missing.add(sku)));
+        return ProductLookup.builder().products(productList).missing(missing).build();
     }
 
     @Override
+    @Timed(value = OPERATIONS_TIMER, histogram = true)
+    @Transactional
     public Product updateProductBySku(String sku, Product product) {
         product.setSku(sku);
         ProductEntity productEntity = getProductEntityBySku(sku);
-        repository.save(buildEntity(product));
-        return productEntity.toDomain();
+        checkVersion(productEntity, product.getVersion());
+        // dirty checking on the managed entity writes only the changed columns and image rows
+        copyToEntity(product, productEntity);
+        entityManager.flush();
+        beforeCommit(new ProductWriteEvent(List.of(sku)));
+        Product updatedProduct = productEntity.toDomain();
+        outbox.record(sku, ProductEvent.Type.UPDATED, updatedProduct.getVersion());
+        afterCommit(() -> {
+            evict(sku);
+            productIndex.index(updatedProduct);
+            outbox.publish();
+        });
+        return updatedProduct;
+    }
+
+    @Override
+    @Timed(value = OPERATIONS_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public ProductPage getProducts(ProductQuery query) {
+        int limit = Math.max(1, Math.min(query.getLimit(), MAX_PAGE_SIZE));
+        // one extra row tells whether there is a next page without a count query
+        List<Product> productList = query.isWithoutImages()
+                ? repository.findSummaryPage(query, limit + 1).stream().map(ProductSummary::toDomain).collect(Collectors.toList())
+                : repository.findPage(query, limit + 1).stream().map(ProductEntity::toDomain).collect(Collectors.toList());
+        String next = null;
+        if (productList.size() > limit) {
+            productList = productList.subList(0, limit);
+            next = productList.get(limit - 1).getSku();
+        }
+        return ProductPage.builder().products(productList).next(next).build();
+    }
+
+    @Override
+    @Timed(value = OPERATIONS_TIMER, histogram = true)
+    public ProductSearchResult searchProducts(ProductSearchQuery query) {
+        query.setLimit(Math.max(1, Math.min(query.getLimit(), MAX_PAGE_SIZE)));
+        ProductIndex.Hits hits = productIndex.search(query);
+        // the index only answers skus, the products come from the cache and the database
+        List<Product> productList = hits.getSkus().isEmpty()
+                ? List.of() : getProductsBySkus(hits.getSkus()).getProducts();
+        return ProductSearchResult.builder()
+                .products(productList)
+                .total(hits.getTotal())
+                .brands(hits.getBrands()).build();
     }
 
     @Override
-    public List<Product> getAllProducts() {
-        List<ProductEntity> productEntityList = repository.findAll();
-        if (productEntityList.isEmpty()) {
-            throw new ProductNotFoundException("No registered products found");
+    @Timed(value = OPERATIONS_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public void exportProducts(Consumer<Product> consumer) {
+        List<ProductEntity> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        try (Stream<ProductEntity> productEntityStream = repository.streamAllBy()) {
+            productEntityStream.forEach(productEntity -> {
+                chunk.add(productEntity);
+                if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                    exportChunk(chunk, consumer);
+                }
+            });
         }
-        return productEntityList.stream().map(ProductEntity::toDomain).collect(Collectors.toList());
+        exportChunk(chunk, consumer);
     }
 
     @Override
+    @Timed(value = OPERATIONS_TIMER, histogram = true)
+    @Transactional
     public void deleteProductBySku(String sku) {
+        deleteProductBySku(sku, null);
+    }
+
+    @Override
+    @Timed(value = OPERATIONS_TIMER, histogram = true)
+    @Transactional
+    public void deleteProductBySku(String sku, Long version) {
         ProductEntity productEntity = getProductEntityBySku(sku);
+        checkVersion(productEntity, version);
         repository.delete(productEntity);
+        beforeCommit(new ProductWriteEvent(List.of(sku)));
+        tombstoneRepository.save(ProductTombstoneEntity.builder()
+                .sku(sku)
+                .deletedAt(Instant.now().truncatedTo(ChronoUnit.MILLIS)).build());
+        outbox.record(sku, ProductEvent.Type.DELETED, null);
+        afterCommit(() -> {
+            evict(sku);
+            productIndex.remove(sku);
+            outbox.publish();
+        });
+    }
+
+    @Override
+    @Timed(value = OPERATIONS_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public ProductChangePage getChanges(ProductChangeQuery query) {
+        int limit = Math.max(1, Math.min(query.getLimit(), MAX_PAGE_SIZE));
+        Instant since = query.getSince() == null ? Instant.EPOCH : query.getSince();
+        String after = query.getAfter() == null ? "" : query.getAfter();
+        // a change is stamped when flushed, not when committed; the newest ones are held back so one
+        // committing late cannot land behind a cursor already handed out
+        Instant until = Instant.now().minus(changesSafetyLag);
+        // both sides are read in the same order, merging the first limit + 1 of each is enough
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<ProductChange> updates = repository.findChangedSince(since, after, until, pageable)
+                .stream()
+                .map(productEntity -> ProductChange.builder()
+                        .sku(productEntity.getSku())
+                        .changedAt(productEntity.getUpdatedAt())
+                        .product(productEntity.toDomain()).build())
+                .collect(Collectors.toList());
+        List<ProductChange> deletions = tombstoneRepository.findDeletedSince(since, after, until, pageable)
+                .stream()
+                .map(tombstone -> ProductChange.builder()
+                        .sku(tombstone.getSku())
+                        .changedAt(tombstone.getDeletedAt()).build())
+                .collect(Collectors.toList());
+        List<ProductChange> changes = Stream.concat(updates.stream(), deletions.stream())
+                .sorted(Comparator.comparing(ProductChange::getChangedAt).thenComparing(ProductChange::getSku))
+                .collect(Collectors.toList());
+        boolean more = changes.size() > limit;
+        if (more) {
+            changes = changes.subList(0, limit);
+        }
+        ProductChange last = changes.isEmpty() ? null : changes.get(changes.size() - 1);
+        return ProductChangePage.builder()
+                .changes(changes)
+                .since(last == null ? since : last.getChangedAt())
+                .after(last == null ? query.getAfter() : last.getSku())
+                .more(more).build();
+    }
+
+    @Override
+    @Timed(value = OPERATIONS_TIMER, histogram = true)
+    public Instant getLastModified() {
+        // the updated at index and the deleted at index answer each maximum with one seek
+        Instant lastUpdatedAt = repository.findLastUpdatedAt();
+        Instant lastDeletedAt = tombstoneRepository.findLastDeletedAt();
+        if (lastUpdatedAt == null || lastDeletedAt == null) {
+            return lastUpdatedAt == null ? lastDeletedAt : lastUpdatedAt;
+        }
+        return lastUpdatedAt.isAfter(lastDeletedAt) ? lastUpdatedAt : lastDeletedAt;
+    }
+
+    private List<ProductBatchResult> saveChunk(List<Product> chunk) {
+        List<ProductBatchResult> results;
+        try {
+            results = transactionTemplate.execute(status -> upsertChunk(chunk));
+        } catch (RuntimeException e) {
+            return chunk.stream()
+                    .map(product -> batchResult(product.getSku(), ProductBatchResult.Status.FAILED, e.getMessage()))
+                    .collect(Collectors.toList());
+        }
+        chunk.forEach(product -> {
+            evict(product.getSku());
+            productIndex.index(product);
+        });
+        afterCommit(outbox::publish);
+        return results;
+    }
+
+    private List<ProductBatchResult> upsertChunk(List<Product> chunk) {
+        List<String> skus = chunk.stream().map(Product::getSku).collect(Collectors.toList());
+        // one select for the existing rows, then inserts and updates go out as JDBC batches on flush
+        Map<String, ProductEntity> productEntityMap = new HashMap<>(repository.findAllWithImagesBySkuKeyIn(skuKeys(skus)).stream()
+                .collect(Collectors.toMap(ProductEntity::getSku, Function.identity())));
+        List<ProductBatchResult> results = new ArrayList<>(chunk.size());
+        List<ProductEntity> writtenEntities = new ArrayList<>(chunk.size());
+        for (Product product : chunk) {
+            ProductEntity productEntity = productEntityMap.get(product.getSku());
+            if (productEntity == null) {
+                productEntity = buildEntity(product);
+                entityManager.persist(productEntity);
+                productEntityMap.put(product.getSku(), productEntity);
+                results.add(batchResult(product.getSku(), ProductBatchResult.Status.CREATED, null));
+            } else {
+                copyToEntity(product, productEntity);
+                results.add(batchResult(product.getSku(), ProductBatchResult.Status.UPDATED, null));
+            }
+            writtenEntities.add(productEntity);
+        }
+        entityManager.flush();
+        // the events carry the versions assigned by the flush
+        for (int i = 0; i < results.size(); i++) {
+            ProductEvent.Type type = results.get(i).getStatus() == ProductBatchResult.Status.CREATED
+                    ? ProductEvent.Type.CREATED : ProductEvent.Type.UPDATED;
+            outbox.record(results.get(i).getSku(), type, writtenEntities.get(i).getVersion());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        beforeCommit(new ProductWriteEvent(skus));
+        return results;
+    }
+
+    private List<ProductBatchResult> updatePriceChunk(List<String> chunk, Map<String, BigDecimal> prices,
+                                                      Predicate<String> superseded) {
+        Set<String> foundSkus = new HashSet<>();
+        List<Product> updatedProducts;
+        try {
+            updatedProducts = transactionTemplate.execute(status -> {
+                List<ProductEntity> changedEntities = repository.findAllWithImagesBySkuKeyIn(skuKeys(chunk)).stream()
+                        .peek(productEntity -> foundSkus.add(productEntity.getSku()))
+                        // checked after the read: a write announces itself before it commits, so a read that sees it sees it superseded
+                        .filter(productEntity -> !superseded.test(productEntity.getSku()))
+                        .filter(productEntity -> !isSamePrice(productEntity.getPrice(), prices.get(productEntity.getSku())))
+                        .collect(Collectors.toList());
+                changedEntities.forEach(productEntity -> productEntity.setPrice(prices.get(productEntity.getSku())));
+                // the price updates go out as one JDBC batch, then the events with the new versions
+                entityManager.flush();
+                changedEntities.forEach(productEntity ->
+                        outbox.record(productEntity.getSku(), ProductEvent.Type.UPDATED, productEntity.getVersion()));
+                entityManager.flush();
+                List<Product> products = changedEntities.stream().map(ProductEntity::toDomain).collect(Collectors.toList());
+                entityManager.clear();
+                return products;
+            });
+        } catch (RuntimeException e) {
+            return chunk.stream()
+                    .map(sku -> batchResult(sku, ProductBatchResult.Status.FAILED, e.getMessage()))
+                    .collect(Collectors.toList());
+        }
+        updatedProducts.forEach(product -> {
+            evict(product.getSku());
+            productIndex.index(product);
+        });
+        if (!updatedProducts.isEmpty()) {
+            afterCommit(outbox::publish);
+        }
+        return chunk.stream()
+                .map(sku -> foundSkus.contains(sku)
+                        ? batchResult(sku, ProductBatchResult.Status.UPDATED, null)
+                        : batchResult(sku, ProductBatchResult.Status.NOT_FOUND, "Product not found sku " + sku))
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isSamePrice(BigDecimal price, BigDecimal newPrice) {
+        return price != null && newPrice != null && price.compareTo(newPrice) == 0;
+    }
+
+    private ProductBatchResult batchResult(String sku, ProductBatchResult.Status status, String detail) {
+        return ProductBatchResult.builder()
+                .sku(sku)
+                .status(status)
+                .details(detail == null ? null : List.of(detail)).build();
+    }
+
+    private void exportChunk(List<ProductEntity> chunk, Consumer<Product> consumer) {
+        // images of the whole chunk are batch fetched on first access, then the
+        // persistence context is cleared so it never grows with the catalog
+        chunk.forEach(productEntity -> consumer.accept(productEntity.toDomain()));
+        chunk.clear();
+        entityManager.clear();
+    }
+
+    /**
+     * Called once the change committed. A load in flight may have read the previous state,
+     * later lookups start their own.
+     */
+    private void evict(String sku) {
+        // counted before invalidating: a load that read the previous state either sees the count
+        // and caches nothing, or cached before the invalidation below removes it
+        evictions.incrementAndGet(stripe(sku));
+        productCache.invalidate(sku);
+        productLoads.forget(sku);
+    }
+
+    /**
+     * Caches what a load read unless the sku was evicted since the load started, the value may predate the change.
+     */
+    private void cacheUnlessEvicted(String sku, Optional<Product> product, long evicted) {
+        int stripe = stripe(sku);
+        // checked under the lock of the entry, so an eviction cannot slip in between the check and the put
+        productCache.asMap().compute(sku, (key, cached) -> evictions.get(stripe) == evicted ? product : cached);
+    }
+
+    private static int stripe(String sku) {
+        return sku.hashCode() & (EVICTION_STRIPES - 1);
+    }
+
+    /**
+     * Through the batch loader when enabled, one statement then serves the concurrent misses of many skus.
+     * Waiting for the batch holds no lock of the cache, the load runs outside it.
+     */
+    private Optional<Product> loadProduct(String sku) {
+        if (productBatchLoader == null || !Sku.isValid(sku)) {
+            return findEntity(sku).map(ProductEntity::toDomain);
+        }
+        return Optional.ofNullable(productBatchLoader.get(sku));
     }
 
     private ProductEntity getProductEntityBySku(String sku) {
-        Optional<ProductEntity> productEntity = repository.findById(sku);
+        Optional<Product> cachedProduct = productCache.getIfPresent(sku);
+        if (cachedProduct != null && cachedProduct.isEmpty()) {
+            throw productNotFound(sku);
+        }
+        long evicted = evictions.get(stripe(sku));
+        Optional<ProductEntity> productEntity = findEntity(sku);
         if (!productEntity.isPresent()) {
-            throw new ProductNotFoundException("Product not found sku " + sku);
+            cacheUnlessEvicted(sku, Optional.empty(), evicted);
+            throw productNotFound(sku);
         }
         return productEntity.get();
     }
 
-    private ProductEntity buildEntity(Product product) {
+    private Optional<ProductEntity> findEntity(String sku) {
+        // a value that is not a sku cannot be stored, no need to ask the database
+        return Sku.isValid(sku) ? repository.findBySkuKey(Sku.parse(sku)) : Optional.empty();
+    }
+
+    private List<Sku> skuKeys(Collection<String> skus) {
+        return skus.stream().filter(Sku::isValid).map(Sku::parse).collect(Collectors.toList());
+    }
+
+    private void checkVersion(ProductEntity productEntity, Long version) {
+        if (version != null && !version.equals(productEntity.getVersion())) {
+            throw new ProductConflictException("Product sku " + productEntity.getSku() + " was modified, current version "
+                    + productEntity.getVersion());
+        }
+    }
+
+    private ProductNotFoundException productNotFound(String sku) {
+        return new ProductNotFoundException("Product not found sku " + sku);
+    }
+
+    static ProductEntity buildEntity(Product product) {
         return ProductEntity.builder()
                 .sku(product.getSku())
                 .name(product.getName())
@@ -76,4 +539,63 @@ public class ProductService implements ProductOperations {
                 .otherImages(product.getOtherImages())
                 .build();
     }
+
+    private void copyToEntity(Product product, ProductEntity productEntity) {
+        productEntity.setName(product.getName());
+        productEntity.setBrand(product.getBrand());
+        productEntity.setSize(product.getSize());
+        productEntity.setPrice(product.getPrice());
+        productEntity.setPrincipalImage(product.getPrincipalImage());
+        copyImages(product.getOtherImages(), productEntity);
+    }
+
+    private void copyImages(List<String> otherImages, ProductEntity productEntity) {
+        List<String> entityImages = productEntity.getOtherImages();
+        if (entityImages == null) {
+            productEntity.setOtherImages(otherImages == null ? null : new ArrayList<>(otherImages));
+            return;
+        }
+        // change the indexed collection element by element so only the differing rows are written
+        int size = otherImages == null ? 0 : otherImages.size();
+        for (int i = 0; i < size; i++) {
+            if (i >= entityImages.size()) {
+                entityImages.add(otherImages.get(i));
+            } else if (!Objects.equals(entityImages.get(i), otherImages.get(i))) {
+                entityImages.set(i, otherImages.get(i));
+            }
+        }
+        while (entityImages.size() > size) {
+            entityImages.remove(entityImages.size() - 1);
+        }
+    }
+
+    /**
+     * Announces a write once it can no longer fail on a missing product or a stale version: the
+     * listeners run before the commit, and those that change state undo it if the commit fails.
+     */
+    private void beforeCommit(ProductWriteEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    eventPublisher.publishEvent(event);
+                }
+            });
+        } else {
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 }
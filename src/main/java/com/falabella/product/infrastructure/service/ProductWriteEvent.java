@@ -0,0 +1,19 @@
+package com.falabella.product.infrastructure.service;
+
+import lombok.Data;
+
+import java.util.Collection;
+
+/**
+ * Published by the {@link ProductService} before it commits a write of whole products, so that a price
+ * accepted earlier and not stored yet does not land over the newer write. A write that fails on a missing
+ * product or a stale version publishes nothing.
+ *
+ * @author german
+ */
+@Data
+public class ProductWriteEvent {
+
+    private final Collection<String> skus;
+
+}
@@ -0,0 +1,167 @@
+package com.falabella.product.infrastructure.service;
+
+import com.falabella.product.domain.error.ProductNotFoundException;
+import com.falabella.product.domain.error.ProductReadOnlyException;
+import com.falabella.product.domain.error.ProductSearchDisabledException;
+import com.falabella.product.domain.model.Product;
+import com.falabella.product.domain.model.ProductBatchResult;
+import com.falabella.product.domain.model.ProductLookup;
+import com.falabella.product.domain.model.ProductPage;
+import com.falabella.product.domain.model.ProductQuery;
+import com.falabella.product.domain.model.ProductSearchQuery;
+import com.falabella.product.domain.model.ProductSearchResult;
+import com.falabella.product.domain.port.ProductOperations;
+import com.falabella.product.infrastructure.search.ProductIndex;
+import com.falabella.product.infrastructure.snapshot.ProductSnapshot;
+import com.falabella.product.infrastructure.snapshot.ProductSnapshotRefreshedEvent;
+import com.falabella.product.infrastructure.snapshot.ProductSnapshotStore;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Read only operations of a replica, served from the memory mapped snapshot instead of the database.
+ * Search is opt-in: its index lives on the heap and is rebuilt by decoding every product of each snapshot.
+ *
+ * @author german
+ */
+@Slf4j
+@Service
+@Profile("replica")
+public class SnapshotProductService implements ProductOperations {
+
+    private static final String OPERATIONS_TIMER = "product.operations";
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final ProductSnapshotStore snapshotStore;
+    private final ProductIndex productIndex;
+    private final boolean searchEnabled;
+
+    public SnapshotProductService(ProductSnapshotStore snapshotStore, ProductIndex productIndex,
+                                  @Value("${product.snapshot.search.enabled}") boolean searchEnabled) {
+        this.snapshotStore = snapshotStore;
+        this.productIndex = productIndex;
+        this.searchEnabled = searchEnabled;
+    }
+
+    @EventListener({ApplicationReadyEvent.class, ProductSnapshotRefreshedEvent.class})
+    public void rebuildIndex() {
+        if (!searchEnabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        productIndex.rebuild(this::exportProducts);
+        log.info("Indexed {} products in {} ms", productIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public Product saveProduct(Product product) {
+        throw readOnly();
+    }
+
+    @Override
+    public List<ProductBatchResult> saveProducts(List<Product> products) {
+        throw readOnly();
+    }
+
+    @Override
+    @Timed(value = OPERATIONS_TIMER, histogram = true)
+    public Product getProductBySku(String sku) {
+        Product product = snapshotStore.current().get(sku);
+        if (product == null) {
+            throw new ProductNotFoundException("Product not found sku " + sku);
+        }
+        return product;
+    }
+
+    @Override
+    @Timed(value = OPERATIONS_TIMER, histogram = true)
+    public ProductLookup getProductsBySkus(Collection<String> skus) {
+        ProductSnapshot snapshot = snapshotStore.current();
+        Set<String> skuSet = new LinkedHashSet<>(skus);
+        List<Product> productList = new ArrayList<>(skuSet.size());
+        List<String> missing = new ArrayList<>();
+        for (String sku : skuSet) {
+            Product product = snapshot.get(sku);
+            if (product == null) {
+                missing.add(sku);
+            } else {
+                productList.add(product);
+            }
+        }
+        return ProductLookup.builder().products(productList).missing(missing).build();
+    }
+
+    @Override
+    public Product updateProductBySku(String sku, Product product) {
+        throw readOnly();
+    }
+
+    @Override
+    @Timed(value = OPERATIONS_TIMER, histogram = true)
+    public ProductPage getProducts(ProductQuery query) {
+        int limit = Math.max(1, Math.min(query.getLimit(), MAX_PAGE_SIZE));
+        List<Product> productList = snapshotStore.current().page(query, limit + 1);
+        String next = null;
+        if (productList.size() > limit) {
+            productList = productList.subList(0, limit);
+            next = productList.get(limit - 1).getSku();
+        }
+        return ProductPage.builder().products(productList).next(next).build();
+    }
+
+    @Override
+    @Timed(value = OPERATIONS_TIMER, histogram = true)
+    public ProductSearchResult searchProducts(ProductSearchQuery query) {
+        if (!searchEnabled) {
+            throw new ProductSearchDisabledException("Search is not enabled on this replica");
+        }
+        query.setLimit(Math.max(1, Math.min(query.getLimit(), MAX_PAGE_SIZE)));
+        ProductIndex.Hits hits = productIndex.search(query);
+        List<Product> productList = hits.getSkus().isEmpty()
+                ? List.of() : getProductsBySkus(hits.getSkus()).getProducts();
+        return ProductSearchResult.builder()
+                .products(productList)
+                .total(hits.getTotal())
+                .brands(hits.getBrands()).build();
+    }
+
+    @Override
+    @Timed(value = OPERATIONS_TIMER, histogram = true)
+    public void exportProducts(Consumer<Product> consumer) {
+        snapshotStore.current().forEach(consumer);
+    }
+
+    @Override
+    public void deleteProductBySku(String sku) {
+        throw readOnly();
+    }
+
+    @Override
+    public void deleteProductBySku(String sku, Long version) {
+        throw readOnly();
+    }
+
+    @Override
+    public Instant getLastModified() {
+        long createdAt = snapshotStore.current().getCreatedAt();
+        return createdAt == 0 ? null : Instant.ofEpochMilli(createdAt);
+    }
+
+    private ProductReadOnlyException readOnly() {
+        return new ProductReadOnlyException("Products are read only on a replica");
+    }
+
+}
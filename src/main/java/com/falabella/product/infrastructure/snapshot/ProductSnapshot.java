@@ -0,0 +1,222 @@
+package com.falabella.product.infrastructure.snapshot;
+
+import com.falabella.product.domain.model.Product;
+import com.falabella.product.domain.model.ProductQuery;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Read-only view of a snapshot file mapped into memory. The catalog stays off heap, a lookup
+ * probes the sku hash table and decodes the one record it points to.
+ * <p>
+ * Layout, big endian: a header ({@link #HEADER_SIZE} bytes: magic, format version, product count,
+ * hash table size, hash table offset, order offset, creation time), the packed records, a hash table
+ * of record offsets with linear probing, and the record offsets sorted by sku for paging. A record is
+ * sku, name, brand, size, price, principal image, other images and version; strings are an unsigned
+ * short length, {@link #NULL_LENGTH} for null, followed by UTF-8 bytes, the price is a scale byte,
+ * {@code -1} for null, followed by the unscaled long.
+ *
+ * @author german
+ */
+public final class ProductSnapshot {
+
+    static final int MAGIC = 0x50524F44;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 40;
+    static final int NULL_LENGTH = 0xFFFF;
+
+    private static final ProductSnapshot EMPTY = new ProductSnapshot(ByteBuffer.allocate(0), 0, 0, 0, 0, 0);
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int tableSize;
+    private final int hashOffset;
+    private final int orderOffset;
+    private final long createdAt;
+
+    private ProductSnapshot(ByteBuffer buffer, int count, int tableSize, int hashOffset, int orderOffset, long createdAt) {
+        this.buffer = buffer;
+        this.count = count;
+        this.tableSize = tableSize;
+        this.hashOffset = hashOffset;
+        this.orderOffset = orderOffset;
+        this.createdAt = createdAt;
+    }
+
+    public static ProductSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Maps the file, the mapping outlives the channel and stays valid when the file is replaced.
+     */
+    public static ProductSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("Not a product snapshot " + path);
+            }
+            return new ProductSnapshot(buffer, buffer.getInt(8), buffer.getInt(12),
+                    Math.toIntExact(buffer.getLong(16)), Math.toIntExact(buffer.getLong(24)), buffer.getLong(32));
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public Product get(String sku) {
+        int offset = find(sku);
+        return offset == 0 ? null : read(offset);
+    }
+
+    public boolean contains(String sku) {
+        return find(sku) != 0;
+    }
+
+    /**
+     * Products after the query cursor that match its filters, in sku order.
+     */
+    public List<Product> page(ProductQuery query, int maxResults) {
+        int from = query.getAfter() == null ? 0 : upperBound(query.getAfter());
+        List<Product> products = new ArrayList<>(Math.min(maxResults, count - from));
+        for (int i = from; i < count && products.size() < maxResults; i++) {
+            Product product = read(buffer.getInt(orderOffset + i * Integer.BYTES));
+            if (matches(product, query)) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    public void forEach(Consumer<Product> consumer) {
+        for (int i = 0; i < count; i++) {
+            consumer.accept(read(buffer.getInt(orderOffset + i * Integer.BYTES)));
+        }
+    }
+
+    private int find(String sku) {
+        if (count == 0) {
+            return 0;
+        }
+        int mask = tableSize - 1;
+        for (int slot = hash(sku) & mask; ; slot = (slot + 1) & mask) {
+            int offset = buffer.getInt(hashOffset + slot * Integer.BYTES);
+            if (offset == 0) {
+                return 0;
+            }
+            if (compareSku(offset, sku) == 0) {
+                return offset;
+            }
+        }
+    }
+
+    /**
+     * Index in sku order of the first product after the given sku.
+     */
+    private int upperBound(String sku) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareSku(buffer.getInt(orderOffset + middle * Integer.BYTES), sku) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares the sku stored at the record offset with the given one without decoding it, skus are ascii.
+     */
+    private int compareSku(int offset, String sku) {
+        int length = Short.toUnsignedInt(buffer.getShort(offset));
+        int common = Math.min(length, sku.length());
+        for (int i = 0; i < common; i++) {
+            int difference = (buffer.get(offset + Short.BYTES + i) & 0xFF) - sku.charAt(i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - sku.length();
+    }
+
+    private Product read(int offset) {
+        Reader reader = new Reader(offset);
+        Product.ProductBuilder product = Product.builder()
+                .sku(reader.string())
+                .name(reader.string())
+                .brand(reader.string())
+                .size(reader.string())
+                .price(reader.price())
+                .principalImage(reader.string());
+        int images = buffer.getInt(reader.position);
+        reader.position += Integer.BYTES;
+        if (images >= 0) {
+            List<String> otherImages = new ArrayList<>(images);
+            for (int i = 0; i < images; i++) {
+                otherImages.add(reader.string());
+            }
+            product.otherImages(otherImages);
+        }
+        long version = buffer.getLong(reader.position);
+        return product.version(version < 0 ? null : version).build();
+    }
+
+    private boolean matches(Product product, ProductQuery query) {
+        return (query.getBrand() == null || query.getBrand().equals(product.getBrand()))
+                && (query.getMinPrice() == null || product.getPrice().compareTo(query.getMinPrice()) >= 0)
+                && (query.getMaxPrice() == null || product.getPrice().compareTo(query.getMaxPrice()) <= 0);
+    }
+
+    static int hash(String sku) {
+        int hash = sku.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private final class Reader {
+
+        private int position;
+
+        Reader(int position) {
+            this.position = position;
+        }
+
+        String string() {
+            int length = Short.toUnsignedInt(buffer.getShort(position));
+            position += Short.BYTES;
+            if (length == NULL_LENGTH) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = buffer.get(position + i);
+            }
+            position += length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        BigDecimal price() {
+            byte scale = buffer.get(position);
+            long unscaled = buffer.getLong(position + 1);
+            position += 1 + Long.BYTES;
+            return scale < 0 ? null : BigDecimal.valueOf(unscaled, scale);
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.falabella.product.infrastructure.snapshot;
+
+import com.falabella.product.domain.port.ProductOperations;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Writes the snapshot the replicas read from the repository of the primary.
+ *
+ * @author german
+ */
+@Slf4j
+@Component
+@Profile("!replica")
+@ConditionalOnProperty(name = "product.snapshot.export.enabled", havingValue = "true")
+public class ProductSnapshotExporter {
+
+    private final ProductOperations productOperations;
+    private final Path path;
+
+    public ProductSnapshotExporter(ProductOperations productOperations, @Value("${product.snapshot.path}") Path path) {
+        this.productOperations = productOperations;
+        this.path = path;
+    }
+
+    @Scheduled(fixedDelayString = "${product.snapshot.export.interval}")
+    public void export() {
+        long start = System.nanoTime();
+        try {
+            int count = ProductSnapshotWriter.write(path, productOperations::exportProducts);
+            log.info("Exported {} products to snapshot {} in {} ms", count, path, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.error("Product snapshot {} could not be written", path, e);
+        }
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.falabella.product.infrastructure.snapshot;
+
+import lombok.Data;
+
+/**
+ * Published by the {@link ProductSnapshotStore} after a new snapshot replaced the current one.
+ *
+ * @author german
+ */
+@Data
+public class ProductSnapshotRefreshedEvent {
+
+    private final int size;
+
+}
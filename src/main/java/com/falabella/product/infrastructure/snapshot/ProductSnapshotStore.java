@@ -0,0 +1,75 @@
+package com.falabella.product.infrastructure.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the snapshot a replica serves from. The file is polled and, when it changed, mapped and swapped
+ * in with a single reference write, readers keep whatever snapshot they started with.
+ *
+ * @author german
+ */
+@Slf4j
+@Component
+@Profile("replica")
+public class ProductSnapshotStore {
+
+    private final Path path;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicReference<ProductSnapshot> current = new AtomicReference<>(ProductSnapshot.empty());
+    private FileTime lastModified;
+
+    public ProductSnapshotStore(@Value("${product.snapshot.path}") Path path, ApplicationEventPublisher eventPublisher) {
+        this.path = path;
+        this.eventPublisher = eventPublisher;
+        // the first snapshot is mapped before the application is ready, listeners start from it
+        load();
+    }
+
+    public ProductSnapshot current() {
+        return current.get();
+    }
+
+    @Scheduled(initialDelayString = "${product.snapshot.refresh-interval}",
+            fixedDelayString = "${product.snapshot.refresh-interval}")
+    public synchronized void refresh() {
+        if (load()) {
+            eventPublisher.publishEvent(new ProductSnapshotRefreshedEvent(current.get().size()));
+        }
+    }
+
+    private boolean load() {
+        try {
+            if (!Files.exists(path)) {
+                log.warn("Product snapshot {} not found, serving {} products", path, current.get().size());
+                return false;
+            }
+            FileTime modified = Files.getLastModifiedTime(path);
+            if (modified.equals(lastModified)) {
+                return false;
+            }
+            long start = System.nanoTime();
+            ProductSnapshot snapshot = ProductSnapshot.open(path);
+            // the old mapping is unmapped once the last reader drops it and it is collected
+            current.set(snapshot);
+            lastModified = modified;
+            log.info("Loaded product snapshot {} with {} products in {} ms", path, snapshot.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+            return true;
+        } catch (IOException e) {
+            log.error("Product snapshot {} could not be loaded, serving {} products", path, current.get().size(), e);
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,193 @@
+package com.falabella.product.infrastructure.snapshot;
+
+import com.falabella.product.domain.model.Product;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes a {@link ProductSnapshot} file. Records are streamed as they come, only the sku and offset of
+ * each product are kept to build the tables at the end. The file is written next to the target and
+ * moved over it once complete, so readers either see the previous snapshot or the new one.
+ *
+ * @author german
+ */
+public final class ProductSnapshotWriter {
+
+    private ProductSnapshotWriter() {
+    }
+
+    /**
+     * @param source feeds every product of the snapshot to the given consumer, skus must be unique
+     * @return the number of products written
+     */
+    public static int write(Path target, Consumer<Consumer<Product>> source) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            int count = writeFile(temporary, source);
+            if (Files.getFileStore(temporary).supportsFileAttributeView(PosixFileAttributeView.class)) {
+                // temporary files are private to the owner, replicas may run as another user
+                Files.setPosixFilePermissions(temporary, PosixFilePermissions.fromString("rw-r--r--"));
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return count;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static int writeFile(Path path, Consumer<Consumer<Product>> source) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(ProductSnapshot.HEADER_SIZE);
+            CountingOutput output = new CountingOutput(Channels.newOutputStream(channel), ProductSnapshot.HEADER_SIZE);
+            try {
+                source.accept(product -> {
+                    try {
+                        entries.add(new Entry(product.getSku(), offset(output.position())));
+                        writeProduct(output.data, product);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            int count = entries.size();
+            int tableSize = tableSize(count);
+            long hashOffset = output.position();
+            int[] table = new int[tableSize];
+            for (Entry entry : entries) {
+                int slot = ProductSnapshot.hash(entry.sku) & (tableSize - 1);
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & (tableSize - 1);
+                }
+                table[slot] = entry.offset;
+            }
+            for (int offset : table) {
+                output.data.writeInt(offset);
+            }
+            long orderOffset = output.position();
+            entries.sort(Comparator.comparing(entry -> entry.sku));
+            for (Entry entry : entries) {
+                output.data.writeInt(entry.offset);
+            }
+            output.data.flush();
+            offset(output.position());
+
+            ByteBuffer header = ByteBuffer.allocate(ProductSnapshot.HEADER_SIZE)
+                    .putInt(ProductSnapshot.MAGIC)
+                    .putInt(ProductSnapshot.FORMAT_VERSION)
+                    .putInt(count)
+                    .putInt(tableSize)
+                    .putLong(hashOffset)
+                    .putLong(orderOffset)
+                    .putLong(System.currentTimeMillis())
+                    .flip();
+            channel.write(header, 0);
+            channel.force(true);
+            return count;
+        }
+    }
+
+    private static void writeProduct(DataOutputStream data, Product product) throws IOException {
+        writeString(data, product.getSku());
+        writeString(data, product.getName());
+        writeString(data, product.getBrand());
+        writeString(data, product.getSize());
+        if (product.getPrice() == null) {
+            data.writeByte(-1);
+            data.writeLong(0);
+        } else {
+            // prices have a small non negative scale, anything else does not fit the packed form
+            data.writeByte(product.getPrice().scale());
+            data.writeLong(product.getPrice().unscaledValue().longValueExact());
+        }
+        writeString(data, product.getPrincipalImage());
+        List<String> otherImages = product.getOtherImages();
+        data.writeInt(otherImages == null ? -1 : otherImages.size());
+        if (otherImages != null) {
+            for (String image : otherImages) {
+                writeString(data, image);
+            }
+        }
+        data.writeLong(product.getVersion() == null ? -1 : product.getVersion());
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        if (value == null) {
+            data.writeShort(ProductSnapshot.NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= ProductSnapshot.NULL_LENGTH) {
+            throw new IOException("Value too long for a product snapshot: " + bytes.length + " bytes");
+        }
+        data.writeShort(bytes.length);
+        data.write(bytes);
+    }
+
+    /**
+     * Records and tables are addressed by int offsets, a snapshot ends before 2 GB.
+     */
+    static int offset(long position) throws IOException {
+        if (position > Integer.MAX_VALUE) {
+            throw new IOException("Product snapshot exceeds 2 GB");
+        }
+        return (int) position;
+    }
+
+    /**
+     * Power of two at least twice the count, keeps probe sequences short.
+     */
+    static int tableSize(int count) {
+        return Math.max(2, Integer.highestOneBit(Math.max(1, count) * 2 - 1) << 1);
+    }
+
+    private static final class Entry {
+
+        private final String sku;
+        private final int offset;
+
+        Entry(String sku, int offset) {
+            this.sku = sku;
+            this.offset = offset;
+        }
+    }
+
+    private static final class CountingOutput {
+
+        private final DataOutputStream data;
+        private final long start;
+
+        CountingOutput(OutputStream output, long start) {
+            this.data = new DataOutputStream(new BufferedOutputStream(output, 1 << 16));
+            this.start = start;
+        }
+
+        long position() {
+            return start + data.size();
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.falabella.product.presentation.api;
+
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+/**
+ * Caching headers of the read endpoints. The Cache-Control directives of each endpoint come from
+ * {@code product.http.cache-control.<endpoint>}, an endpoint without directives gets no Cache-Control.
+ *
+ * @author german
+ */
+final class ProductCacheHeaders {
+
+    static final String PRODUCT = "product";
+    static final String PRODUCTS = "products";
+    static final String SEARCH = "search";
+
+    private static final String PROPERTY = "product.http.cache-control";
+
+    private final Map<String, String> cacheControl;
+
+    private ProductCacheHeaders(Map<String, String> cacheControl) {
+        this.cacheControl = cacheControl;
+    }
+
+    static ProductCacheHeaders of(Environment environment) {
+        return new ProductCacheHeaders(Binder.get(environment)
+                .bind(PROPERTY, Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of()));
+    }
+
+    <B extends ResponseEntity.HeadersBuilder<B>> B apply(B builder, String endpoint, Instant lastModified) {
+        String directives = cacheControl.get(endpoint);
+        if (directives != null) {
+            builder.header(HttpHeaders.CACHE_CONTROL, directives);
+        }
+        if (lastModified != null) {
+            builder.lastModified(httpDate(lastModified, Instant.now()));
+        }
+        return builder;
+    }
+
+    /**
+     * The Last-Modified to send for a modification. Http dates have whole seconds: once the second of the
+     * modification is over it is rounded up, a later change is then at or after the date sent. Until then
+     * it is rounded down, a date that {@link #notModifiedSince(Instant)} never takes as current.
+     */
+    static Instant httpDate(Instant lastModified, Instant now) {
+        Instant roundedUp = lastModified.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        return now.isBefore(roundedUp) ? lastModified.truncatedTo(ChronoUnit.SECONDS) : roundedUp;
+    }
+
+    /**
+     * Whether the If-Modified-Since header of the current request is not older than the last modification.
+     * The header is ignored when the request carries If-None-Match, which the caller evaluates instead.
+     */
+    static boolean notModifiedSince(Instant lastModified) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (lastModified == null || !(attributes instanceof ServletRequestAttributes)) {
+            return false;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            return false;
+        }
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        // at millisecond precision, a change later in the second of the date sent is newer than it
+        return ifModifiedSince >= 0 && lastModified.toEpochMilli() < ifModifiedSince;
+    }
+
+}
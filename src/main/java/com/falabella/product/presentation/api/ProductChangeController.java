@@ -0,0 +1,63 @@
+package com.falabella.product.presentation.api;
+
+import com.falabella.product.domain.model.ProductChangePage;
+import com.falabella.product.domain.model.ProductChangeQuery;
+import com.falabella.product.domain.port.ProductChangeOperations;
+import com.falabella.product.presentation.api.model.ProductChangePageResponse;
+import com.falabella.product.presentation.api.model.ProductChangeResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.stream.Collectors;
+
+/**
+ * Products changed since a point in time, for clients that keep a copy of the catalog. The
+ * {@code cursor} of each answer is where the next page, or the next refresh, starts from.
+ *
+ * @author german
+ */
+@RestController
+@Profile("!replica")
+@RequestMapping(value = "/api/v1")
+public class ProductChangeController {
+
+    private final ProductChangeOperations changeOperations;
+
+    public ProductChangeController(ProductChangeOperations changeOperations) {
+        this.changeOperations = changeOperations;
+    }
+
+    @GetMapping(path = "/products/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductChangePageResponse> getChanges(@RequestParam(value = "since", required = false) Instant since,
+                                                                @RequestParam(value = "cursor", required = false) String cursor,
+                                                                @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        ProductChangeQuery query = cursor == null
+                ? ProductChangeQuery.builder().since(since).limit(limit).build()
+                : ProductCursor.decodeChange(cursor, limit);
+        ProductChangePage page = changeOperations.getChanges(query);
+        String nextCursor = ProductCursor.encodeChange(page.getSince(), page.getAfter());
+        ProductChangePageResponse response = new ProductChangePageResponse(page.getChanges()
+                .stream()
+                .map(ProductChangeResponse::of)
+                .collect(Collectors.toList()), nextCursor);
+        response.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ProductChangeController.class).getChanges(since, cursor, limit)).withSelfRel().expand());
+        if (page.isMore()) {
+            response.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ProductChangeController.class).getChanges(null, nextCursor, limit)).withRel(IanaLinkRelations.NEXT).expand());
+        }
+        // the same cursor answers more changes later on
+        return ResponseEntity.status(HttpStatus.OK)
+                .cacheControl(CacheControl.noStore())
+                .body(response);
+    }
+
+}
@@ -1,22 +1,53 @@
 package com.falabella.product.presentation.api;
 
 import com.falabella.product.domain.model.Product;
+import com.falabella.product.domain.model.ProductBatchResult;
+import com.falabella.product.domain.model.ProductLookup;
+import com.falabella.product.domain.model.ProductPage;
+import com.falabella.product.domain.model.ProductQuery;
+import com.falabella.product.domain.model.ProductSearchQuery;
+import com.falabella.product.domain.model.ProductSearchResult;
 import com.falabella.product.domain.port.ProductOperations;
+import com.falabella.product.presentation.api.error.InvalidSearchException;
+import com.falabella.product.presentation.api.error.TooManySkusException;
 import com.falabella.product.presentation.api.model.DataResponse;
+import com.falabella.product.presentation.api.model.ProductBatchItemResponse;
+import com.falabella.product.presentation.api.model.ProductLookupResponse;
+import com.falabella.product.presentation.api.model.ProductPageResponse;
 import com.falabella.product.presentation.api.model.ProductRequest;
 import com.falabella.product.presentation.api.model.ProductResponse;
+import com.falabella.product.presentation.api.model.ProductSearchResponse;
 import com.falabella.product.presentation.api.model.ProductUpdateRequest;
+import com.falabella.product.presentation.api.validation.ValidSku;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
-import javax.validation.constraints.Pattern;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -27,67 +58,254 @@ import java.util.stream.Collectors;
 @RequestMapping(value = "/api/v1")
 public class ProductController {
 
+    private static final int BATCH_CHUNK_SIZE = 1000;
+    // skus of one lookup, each is a key of the IN list and a cache entry
+    private static final int MAX_LOOKUP_SKUS = 200;
+
     private final ProductOperations productOperations;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ObjectWriter exportWriter;
+    private final ObjectReader batchReader;
+    private final ProductCacheHeaders cacheHeaders;
 
-    public ProductController(ProductOperations productOperations) {
+    public ProductController(ProductOperations productOperations, ObjectMapper objectMapper, Validator validator,
+                             Environment environment) {
         this.productOperations = productOperations;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.exportWriter = objectMapper.writerFor(DataResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.batchReader = objectMapper.readerFor(ProductRequest.class);
+        this.cacheHeaders = ProductCacheHeaders.of(environment);
     }
 
     @PostMapping(path = "/product", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ProductResponse> saveProduct(@Valid @RequestBody ProductRequest request) {
-        log.info("request: {}", request);
+        log.debug("request: {}", request);
         Product product = productOperations.saveProduct(request.toDomain());
-        log.info("response: {}", product);
-        return ResponseEntity.status(HttpStatus.CREATED).body(assembleResponse(DataResponse.of(product)));
+        log.debug("response: {}", product);
+        return withETag(ResponseEntity.status(HttpStatus.CREATED), product.getVersion())
+                .body(assembleResponse(DataResponse.of(product)));
+    }
+
+    @PostMapping(path = "/products/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ProductBatchItemResponse>> saveProducts(@RequestBody List<ProductRequest> requests) {
+        log.info("batch size: {}", requests.size());
+        return ResponseEntity.status(HttpStatus.OK).body(saveBatch(requests));
+    }
+
+    @PostMapping(path = "/products/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ProductBatchItemResponse>> saveProducts(InputStream inputStream) throws IOException {
+        List<ProductBatchItemResponse> responseList = new ArrayList<>();
+        List<ProductRequest> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+        try (MappingIterator<ProductRequest> iterator = batchReader.readValues(inputStream)) {
+            while (iterator.hasNextValue()) {
+                chunk.add(iterator.nextValue());
+                if (chunk.size() == BATCH_CHUNK_SIZE) {
+                    responseList.addAll(saveBatch(chunk));
+                    chunk.clear();
+                }
+            }
+        }
+        responseList.addAll(saveBatch(chunk));
+        log.info("batch size: {}", responseList.size());
+        return ResponseEntity.status(HttpStatus.OK).body(responseList);
     }
 
     @GetMapping(path = "/product/{sku}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<ProductResponse> getProductBySku(@Valid @Pattern(regexp = "\\bFAL\\b-\\d*", message = "It must comply with the format FAL-XXXXXXX, where X is a number")
-                                                           @PathVariable(value = "sku") String sku) {
-        log.info("sku: {}", sku);
+    public ResponseEntity<ProductResponse> getProductBySku(@Valid @ValidSku
+                                                           @PathVariable(value = "sku") String sku,
+                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                           @RequestParam(value = "fields", required = false) String fields) {
+        log.debug("sku: {}", sku);
+        Set<String> fieldSet = ProductFields.parse(fields);
         Product product = productOperations.getProductBySku(sku);
-        log.info("response: {}", product);
-        return ResponseEntity.status(HttpStatus.OK).body(assembleResponse(DataResponse.of(product)));
+        // the product's own change time, a change of another product leaves this response cached
+        Instant lastModified = product.getUpdatedAt() != null ? product.getUpdatedAt() : productOperations.getLastModified();
+        if (ProductETag.matches(ifNoneMatch, product.getVersion()) || ProductCacheHeaders.notModifiedSince(lastModified)) {
+            return withETag(cacheHeaders.apply(ResponseEntity.status(HttpStatus.NOT_MODIFIED), ProductCacheHeaders.PRODUCT, lastModified),
+                    product.getVersion()).build();
+        }
+        log.debug("response: {}", product);
+        return withETag(cacheHeaders.apply(ResponseEntity.status(HttpStatus.OK), ProductCacheHeaders.PRODUCT, lastModified),
+                product.getVersion()).body(assembleResponse(DataResponse.of(product, fieldSet)));
     }
 
     @PutMapping(path = "/product/{sku}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<ProductResponse> updateProduct(@Valid @Pattern(regexp = "\\bFAL\\b-\\d*", message = "It must comply with the format FAL-XXXXXXX, where X is a number")
+    public ResponseEntity<ProductResponse> updateProduct(@Valid @ValidSku
                                                          @PathVariable(value = "sku") String sku,
-                                                         @Valid @RequestBody ProductUpdateRequest request) {
-        log.info("sku: {}", sku);
-        log.info("request: {}", request);
-        Product product = productOperations.updateProductBySku(sku, request.toDomain());
-        log.info("response: {}", product);
-        return ResponseEntity.status(HttpStatus.CREATED).body(assembleResponse(DataResponse.of(product)));
-    }
-
-    @GetMapping(path = "/products", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<ProductResponse>> getAllProducts() {
-        List<Product> productList = productOperations.getAllProducts();
-        List<DataResponse> dataResponseList = productList
+                                                         @Valid @RequestBody ProductUpdateRequest request,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("sku: {}", sku);
+        log.debug("request: {}", request);
+        Product update = request.toDomain();
+        update.setVersion(ProductETag.expectedVersion(ifMatch));
+        Product product = productOperations.updateProductBySku(sku, update);
+        log.debug("response: {}", product);
+        return withETag(ResponseEntity.status(HttpStatus.CREATED), product.getVersion())
+                .body(assembleResponse(DataResponse.of(product)));
+    }
+
+    // a page even without limit, the service caps it: the whole catalog is read by the export only
+    @GetMapping(path = "/products", params = "!sku", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductPageResponse> getProducts(@RequestParam(value = "limit", defaultValue = "20") int limit,
+                                                           @RequestParam(value = "after", required = false) String after,
+                                                           @RequestParam(value = "brand", required = false) String brand,
+                                                           @RequestParam(value = "min_price", required = false) BigDecimal minPrice,
+                                                           @RequestParam(value = "max_price", required = false) BigDecimal maxPrice,
+                                                           @RequestParam(value = "fields", required = false) String fields) {
+        Set<String> fieldSet = ProductFields.parse(fields);
+        ProductQuery query = ProductQuery.builder()
+                .after(ProductCursor.decode(after))
+                .limit(limit)
+                .brand(brand)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .withoutImages(!ProductFields.includesImages(fieldSet))
+                .fields(ProductFields.properties(fieldSet)).build();
+        Instant lastModified = productOperations.getLastModified();
+        if (ProductCacheHeaders.notModifiedSince(lastModified)) {
+            return notModified(ProductCacheHeaders.PRODUCTS, lastModified);
+        }
+        ProductPage page = productOperations.getProducts(query);
+        ProductLinks links = ProductLinks.current();
+        List<ProductResponse> productResponseList = page.getProducts()
                 .stream()
-                .map(product -> DataResponse.of(product))
+                .map(product -> links.assemble(DataResponse.of(product, fieldSet)))
                 .collect(Collectors.toList());
-        List<ProductResponse> productResponseList = new ArrayList<>();
-        dataResponseList.forEach(dataResponse -> {
-            productResponseList.add(assembleResponse(dataResponse));
-        });
-        return ResponseEntity.status(HttpStatus.OK).body(productResponseList);
+        ProductPageResponse pageResponse = new ProductPageResponse(productResponseList);
+        pageResponse.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ProductController.class).getProducts(limit, after, brand, minPrice, maxPrice, fields)).withSelfRel().expand());
+        if (page.getNext() != null) {
+            pageResponse.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ProductController.class).getProducts(limit, ProductCursor.encode(page.getNext()), brand, minPrice, maxPrice, fields)).withRel(IanaLinkRelations.NEXT).expand());
+        }
+        return cacheHeaders.apply(ResponseEntity.status(HttpStatus.OK), ProductCacheHeaders.PRODUCTS, lastModified)
+                .body(pageResponse);
+    }
+
+    @GetMapping(path = "/products", params = {"sku", "!limit"}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductLookupResponse> getProductsBySkus(@RequestParam(value = "sku") List<String> skus,
+                                                                   @RequestParam(value = "fields", required = false) String fields) {
+        log.debug("skus: {}", skus);
+        if (skus.size() > MAX_LOOKUP_SKUS) {
+            throw new TooManySkusException("At most " + MAX_LOOKUP_SKUS + " skus can be looked up at once, got " + skus.size());
+        }
+        Set<String> fieldSet = ProductFields.parse(fields);
+        Instant lastModified = productOperations.getLastModified();
+        if (ProductCacheHeaders.notModifiedSince(lastModified)) {
+            return notModified(ProductCacheHeaders.PRODUCTS, lastModified);
+        }
+        ProductLookup lookup = productOperations.getProductsBySkus(skus);
+        ProductLinks links = ProductLinks.current();
+        List<ProductResponse> productResponseList = lookup.getProducts()
+                .stream()
+                .map(product -> links.assemble(DataResponse.of(product, fieldSet)))
+                .collect(Collectors.toList());
+        return cacheHeaders.apply(ResponseEntity.status(HttpStatus.OK), ProductCacheHeaders.PRODUCTS, lastModified)
+                .body(new ProductLookupResponse(productResponseList, lookup.getMissing()));
+    }
+
+    @GetMapping(path = "/products/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductSearchResponse> searchProducts(@RequestParam(value = "q", required = false) String text,
+                                                                @RequestParam(value = "brand", required = false) String brand,
+                                                                @RequestParam(value = "min_price", required = false) BigDecimal minPrice,
+                                                                @RequestParam(value = "max_price", required = false) BigDecimal maxPrice,
+                                                                @RequestParam(value = "limit", defaultValue = "20") int limit,
+                                                                @RequestParam(value = "fields", required = false) String fields) {
+        // the index walks the products of a word or of a brand, never the whole catalog
+        if ((text == null || text.isBlank()) && (brand == null || brand.isBlank())) {
+            throw new InvalidSearchException("Search needs q or brand");
+        }
+        Set<String> fieldSet = ProductFields.parse(fields);
+        ProductSearchQuery query = ProductSearchQuery.builder()
+                .text(text)
+                .brand(brand)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .limit(limit).build();
+        Instant lastModified = productOperations.getLastModified();
+        if (ProductCacheHeaders.notModifiedSince(lastModified)) {
+            return notModified(ProductCacheHeaders.SEARCH, lastModified);
+        }
+        ProductSearchResult result = productOperations.searchProducts(query);
+        ProductLinks links = ProductLinks.current();
+        List<ProductResponse> productResponseList = result.getProducts()
+                .stream()
+                .map(product -> links.assemble(DataResponse.of(product, fieldSet)))
+                .collect(Collectors.toList());
+        ProductSearchResponse searchResponse = new ProductSearchResponse(productResponseList, result.getTotal(), result.getBrands());
+        searchResponse.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ProductController.class).searchProducts(text, brand, minPrice, maxPrice, limit, fields)).withSelfRel().expand());
+        return cacheHeaders.apply(ResponseEntity.status(HttpStatus.OK), ProductCacheHeaders.SEARCH, lastModified)
+                .body(searchResponse);
+    }
+
+    @GetMapping(path = "/products/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            productOperations.exportProducts(product -> writeLine(generator, DataResponse.of(product)));
+            generator.close();
+        };
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @DeleteMapping(path = "/product/{sku}")
-    public ResponseEntity<Void> deleteProductBySku(@Valid @Pattern(regexp = "\\bFAL\\b-\\d*", message = "It must comply with the format FAL-XXXXXXX, where X is a number")
-                                                   @PathVariable(value = "sku") String sku) {
-        log.info("sku: {}", sku);
-        productOperations.deleteProductBySku(sku);
+    public ResponseEntity<Void> deleteProductBySku(@Valid @ValidSku
+                                                   @PathVariable(value = "sku") String sku,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("sku: {}", sku);
+        productOperations.deleteProductBySku(sku, ProductETag.expectedVersion(ifMatch));
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
 
-    private ProductResponse assembleResponse(DataResponse dataResponse) {
-        ProductResponse productResponse = new ProductResponse(dataResponse);
-        productResponse.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ProductController.class).getProductBySku(dataResponse.getSku())).withSelfRel());
-        productResponse.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ProductController.class).getProductBySku(dataResponse.getSku())).withRel("product"));
-        return productResponse;
+    private List<ProductBatchItemResponse> saveBatch(List<ProductRequest> requests) {
+        ProductBatchResult[] results = new ProductBatchResult[requests.size()];
+        List<Product> productList = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            ProductRequest request = requests.get(i);
+            Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+            if (violations.isEmpty()) {
+                productList.add(request.toDomain());
+            } else {
+                results[i] = ProductBatchResult.builder()
+                        .sku(request.getSku())
+                        .status(ProductBatchResult.Status.INVALID)
+                        .details(violations.stream()
+                                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                                .collect(Collectors.toList())).build();
+            }
+        }
+        Iterator<ProductBatchResult> saved = productList.isEmpty()
+                ? List.<ProductBatchResult>of().iterator()
+                : productOperations.saveProducts(productList).iterator();
+        List<ProductBatchItemResponse> responseList = new ArrayList<>(results.length);
+        for (ProductBatchResult result : results) {
+            responseList.add(ProductBatchItemResponse.of(result != null ? result : saved.next()));
+        }
+        return responseList;
+    }
+
+    private <T> ResponseEntity<T> notModified(String endpoint, Instant lastModified) {
+        return cacheHeaders.apply(ResponseEntity.status(HttpStatus.NOT_MODIFIED), endpoint, lastModified).build();
+    }
+
+    private ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, Long version) {
+        return version == null ? builder : builder.eTag(ProductETag.of(version));
+    }
+
+    private void writeLine(JsonGenerator generator, DataResponse dataResponse) {
+        try {
+            exportWriter.writeValue(generator, dataResponse);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    ProductResponse assembleResponse(DataResponse dataResponse) {
+        return ProductLinks.current().assemble(dataResponse);
     }
 
 }
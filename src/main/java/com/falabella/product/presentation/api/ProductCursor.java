@@ -0,0 +1,62 @@
+package com.falabella.product.presentation.api;
+
+import com.falabella.product.domain.model.ProductChangeQuery;
+import com.falabella.product.presentation.api.error.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque pagination cursor handed to clients in the {@code next} link.
+ *
+ * @author german
+ */
+public final class ProductCursor {
+
+    private ProductCursor() {
+    }
+
+    public static String encode(String key) {
+        if (key == null) {
+            return null;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor " + cursor);
+        }
+    }
+
+    /**
+     * Position in the changes, the change time in milliseconds and the sku.
+     */
+    static String encodeChange(Instant since, String after) {
+        return encode(since.toEpochMilli() + ":" + (after == null ? "" : after));
+    }
+
+    static ProductChangeQuery decodeChange(String cursor, int limit) {
+        String key = decode(cursor);
+        int separator = key == null ? -1 : key.indexOf(':');
+        if (separator < 0) {
+            throw new InvalidCursorException("Invalid cursor " + cursor);
+        }
+        try {
+            String after = key.substring(separator + 1);
+            return ProductChangeQuery.builder()
+                    .since(Instant.ofEpochMilli(Long.parseLong(key.substring(0, separator))))
+                    .after(after.isEmpty() ? null : after)
+                    .limit(limit).build();
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Invalid cursor " + cursor);
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.falabella.product.presentation.api;
+
+import com.falabella.product.domain.model.ProductEventPage;
+import com.falabella.product.domain.port.ProductEventOperations;
+import com.falabella.product.presentation.api.model.ProductEventPageResponse;
+import com.falabella.product.presentation.api.model.ProductEventResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Tail of the product changes. A consumer keeps the {@code next} sequence of each page and asks for
+ * the events after it; with {@code wait} the request is held until an event is published or the
+ * wait ends, so an idle consumer costs one open request instead of a poll loop.
+ *
+ * @author german
+ */
+@RestController
+@Profile("!replica")
+@RequestMapping(value = "/api/v1")
+public class ProductEventController {
+
+    static final int MAX_WAIT_SECONDS = 30;
+
+    private final ProductEventOperations eventOperations;
+
+    public ProductEventController(ProductEventOperations eventOperations) {
+        this.eventOperations = eventOperations;
+    }
+
+    @GetMapping(path = "/products/events", produces = MediaType.APPLICATION_JSON_VALUE)
+    public DeferredResult<ResponseEntity<ProductEventPageResponse>> getEvents(
+            @RequestParam(value = "after", defaultValue = "0") long after,
+            @RequestParam(value = "limit", defaultValue = "100") int limit,
+            @RequestParam(value = "wait", defaultValue = "0") int wait) {
+        long waitSeconds = Math.max(0, Math.min(wait, MAX_WAIT_SECONDS));
+        // resolved on the request thread, the page may be completed by the publisher
+        String eventsHref = WebMvcLinkBuilder.linkTo(ProductEventController.class).toUri() + "/products/events";
+        // the outbox answers with an empty page when the wait ends, the async timeout only backs it up
+        DeferredResult<ResponseEntity<ProductEventPageResponse>> result =
+                new DeferredResult<>(Duration.ofSeconds(waitSeconds + 5).toMillis());
+        eventOperations.awaitEvents(Math.max(0, after), limit, Duration.ofSeconds(waitSeconds))
+                .whenComplete((page, e) -> {
+                    if (e != null) {
+                        result.setErrorResult(e);
+                    } else {
+                        result.setResult(ResponseEntity.status(HttpStatus.OK)
+                                .cacheControl(CacheControl.noStore())
+                                .body(pageResponse(eventsHref, after, limit, waitSeconds, page)));
+                    }
+                });
+        return result;
+    }
+
+    private static ProductEventPageResponse pageResponse(String eventsHref, long after, int limit, long wait,
+                                                         ProductEventPage page) {
+        ProductEventPageResponse response = new ProductEventPageResponse(page.getEvents()
+                .stream()
+                .map(ProductEventResponse::of)
+                .collect(Collectors.toList()), page.getNext());
+        response.add(Link.of(eventsHref(eventsHref, after, limit, wait)).withSelfRel());
+        response.add(Link.of(eventsHref(eventsHref, page.getNext(), limit, wait)).withRel(IanaLinkRelations.NEXT));
+        return response;
+    }
+
+    private static String eventsHref(String eventsHref, long after, int limit, long wait) {
+        return eventsHref + "?after=" + after + "&limit=" + limit + "&wait=" + wait;
+    }
+
+}
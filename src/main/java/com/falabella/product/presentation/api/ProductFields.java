@@ -0,0 +1,62 @@
+package com.falabella.product.presentation.api;
+
+import com.falabella.product.presentation.api.error.InvalidFieldsException;
+import com.falabella.product.presentation.api.model.DataResponse;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldsets, the {@code fields} parameter lists the product fields to render.
+ *
+ * @author german
+ */
+final class ProductFields {
+
+    private static final Map<String, String> PROPERTIES = Map.of(
+            DataResponse.PRINCIPAL_IMAGE, "principalImage",
+            DataResponse.OTHER_IMAGES, "otherImages");
+
+    private ProductFields() {
+    }
+
+    /**
+     * Requested fields, always including the sku, or {@code null} to render all of them.
+     */
+    static Set<String> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> fieldSet = new LinkedHashSet<>();
+        fieldSet.add(DataResponse.SKU);
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!DataResponse.FIELDS.contains(name)) {
+                throw new InvalidFieldsException("Unknown field " + name + ", valid fields are " + DataResponse.FIELDS);
+            }
+            fieldSet.add(name);
+        }
+        return Collections.unmodifiableSet(fieldSet);
+    }
+
+    /**
+     * Whether the other images have to be loaded, they are the only field read from a separate table.
+     */
+    static boolean includesImages(Set<String> fields) {
+        return fields == null || fields.contains(DataResponse.OTHER_IMAGES);
+    }
+
+    /**
+     * Requested fields named as the product properties, or {@code null} for all of them.
+     */
+    static Set<String> properties(Set<String> fields) {
+        if (fields == null) {
+            return null;
+        }
+        return fields.stream().map(field -> PROPERTIES.getOrDefault(field, field)).collect(Collectors.toUnmodifiableSet());
+    }
+
+}
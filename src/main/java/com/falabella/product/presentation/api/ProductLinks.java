@@ -0,0 +1,51 @@
+package com.falabella.product.presentation.api;
+
+import com.falabella.product.presentation.api.model.DataResponse;
+import com.falabella.product.presentation.api.model.ProductResponse;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Product links built by concatenating the sku to a base uri resolved once per request,
+ * so rendering a product does not proxy the controller or expand a uri template.
+ *
+ * @author german
+ */
+final class ProductLinks {
+
+    private static final String ATTRIBUTE = ProductLinks.class.getName();
+    private static final String PRODUCT_REL = "product";
+
+    private final String productHref;
+
+    private ProductLinks(String apiHref) {
+        this.productHref = apiHref + "/product/";
+    }
+
+    static ProductLinks current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return create();
+        }
+        ProductLinks links = (ProductLinks) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (links == null) {
+            links = create();
+            attributes.setAttribute(ATTRIBUTE, links, RequestAttributes.SCOPE_REQUEST);
+        }
+        return links;
+    }
+
+    private static ProductLinks create() {
+        return new ProductLinks(WebMvcLinkBuilder.linkTo(ProductController.class).toUri().toString());
+    }
+
+    ProductResponse assemble(DataResponse dataResponse) {
+        Link self = Link.of(productHref + dataResponse.getSku());
+        ProductResponse productResponse = new ProductResponse(dataResponse);
+        productResponse.add(self, self.withRel(PRODUCT_REL));
+        return productResponse;
+    }
+
+}
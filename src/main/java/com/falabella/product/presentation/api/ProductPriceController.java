@@ -0,0 +1,47 @@
+package com.falabella.product.presentation.api;
+
+import com.falabella.product.domain.port.ProductPriceOperations;
+import com.falabella.product.presentation.api.model.ProductPriceRequest;
+import com.falabella.product.presentation.api.validation.ValidSku;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+
+/**
+ * Price only updates for high rate feeds. A price is accepted with 202 and stored by the next
+ * flush, a sku that is not stored by then is dropped; 429 asks the feed to slow down.
+ *
+ * @author german
+ */
+@Slf4j
+@RestController
+@Profile("!replica")
+@ConditionalOnProperty(name = "product.price-updates.write-behind", havingValue = "true")
+@RequestMapping(value = "/api/v1")
+public class ProductPriceController {
+
+    private final ProductPriceOperations priceOperations;
+
+    public ProductPriceController(ProductPriceOperations priceOperations) {
+        this.priceOperations = priceOperations;
+    }
+
+    @PutMapping(path = "/product/{sku}/price", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Void> updatePrice(@Valid @ValidSku
+                                            @PathVariable(value = "sku") String sku,
+                                            @Valid @RequestBody ProductPriceRequest request) {
+        log.debug("sku: {} price: {}", sku, request.getPrice());
+        priceOperations.updatePrice(sku, request.getPrice());
+        return ResponseEntity.accepted().build();
+    }
+
+}
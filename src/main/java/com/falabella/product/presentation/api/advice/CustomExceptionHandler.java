@@ -1,8 +1,18 @@
 package com.falabella.product.presentation.api.advice;
 
+import com.falabella.product.domain.error.ProductBackpressureException;
+import com.falabella.product.domain.error.ProductConflictException;
 import com.falabella.product.domain.error.ProductNotFoundException;
+import com.falabella.product.domain.error.ProductReadOnlyException;
+import com.falabella.product.domain.error.ProductSearchDisabledException;
 import com.falabella.product.presentation.api.error.ErrorResponse;
+import com.falabella.product.presentation.api.error.InvalidCursorException;
+import com.falabella.product.presentation.api.error.InvalidFieldsException;
+import com.falabella.product.presentation.api.error.InvalidSearchException;
+import com.falabella.product.presentation.api.error.TooManySkusException;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -12,6 +22,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import javax.persistence.OptimisticLockException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -38,11 +49,169 @@ public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
                 .details(details)
                 .path(PATH).build();
 
-        log.error("ProductNotFoundException", e);
+        // an expected outcome, the message is enough and the exception carries no stack trace
+        log.info("ProductNotFoundException: {}", e.getMessage());
 
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler({ProductConflictException.class, OptimisticLockingFailureException.class, OptimisticLockException.class})
+    public final ResponseEntity<Object> handleConflictException(RuntimeException e) {
+        List<String> details = new ArrayList<>();
+        details.add(e.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.PRECONDITION_FAILED.value())
+                .error(HttpStatus.PRECONDITION_FAILED.getReasonPhrase())
+                .details(details)
+                .path(PATH).build();
+
+        log.info("ProductConflictException: {}", e.getMessage());
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(ProductReadOnlyException.class)
+    public final ResponseEntity<Object> handleException(ProductReadOnlyException e) {
+        List<String> details = new ArrayList<>();
+        details.add(e.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.METHOD_NOT_ALLOWED.value())
+                .error(HttpStatus.METHOD_NOT_ALLOWED.getReasonPhrase())
+                .details(details)
+                .path(PATH).build();
+
+        log.info("ProductReadOnlyException: {}", e.getMessage());
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.METHOD_NOT_ALLOWED);
+    }
+
+    @ExceptionHandler(ProductSearchDisabledException.class)
+    public final ResponseEntity<Object> handleException(ProductSearchDisabledException e) {
+        List<String> details = new ArrayList<>();
+        details.add(e.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.NOT_IMPLEMENTED.value())
+                .error(HttpStatus.NOT_IMPLEMENTED.getReasonPhrase())
+                .details(details)
+                .path(PATH).build();
+
+        log.info("ProductSearchDisabledException: {}", e.getMessage());
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_IMPLEMENTED);
+    }
+
+    @ExceptionHandler(ProductBackpressureException.class)
+    public final ResponseEntity<Object> handleException(ProductBackpressureException e) {
+        List<String> details = new ArrayList<>();
+        details.add(e.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase())
+                .details(details)
+                .path(PATH).build();
+
+        // expected under bursts, logging each one would only add to the load
+        log.debug("ProductBackpressureException: {}", e.getMessage());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return new ResponseEntity<>(errorResponse, headers, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public final ResponseEntity<Object> handleException(InvalidCursorException e) {
+        List<String> details = new ArrayList<>();
+        details.add(e.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
+                .details(details)
+                .path(PATH).build();
+
+        // a bad request of the client, the message is enough and a stack trace would only add to the log
+        log.info("InvalidCursorException: {}", e.getMessage());
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidFieldsException.class)
+    public final ResponseEntity<Object> handleException(InvalidFieldsException e) {
+        List<String> details = new ArrayList<>();
+        details.add(e.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
+                .details(details)
+                .path(PATH).build();
+
+        log.info("InvalidFieldsException: {}", e.getMessage());
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(TooManySkusException.class)
+    public final ResponseEntity<Object> handleException(TooManySkusException e) {
+        List<String> details = new ArrayList<>();
+        details.add(e.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
+                .details(details)
+                .path(PATH).build();
+
+        log.info("TooManySkusException: {}", e.getMessage());
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidSearchException.class)
+    public final ResponseEntity<Object> handleException(InvalidSearchException e) {
+        List<String> details = new ArrayList<>();
+        details.add(e.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
+                .details(details)
+                .path(PATH).build();
+
+        log.info("InvalidSearchException: {}", e.getMessage());
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(JsonProcessingException.class)
+    public final ResponseEntity<Object> handleException(JsonProcessingException e) {
+        List<String> details = new ArrayList<>();
+        details.add(e.getOriginalMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
+                .details(details)
+                .path(PATH).build();
+
+        log.info("JsonProcessingException: {}", e.getOriginalMessage());
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex, HttpHeaders headers, HttpStatus status, WebRequest request) {
 
@@ -59,7 +228,7 @@ public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
                 .details(details)
                 .path(PATH).build();
 
-        log.error("MethodArgumentNotValidException", ex);
+        log.info("MethodArgumentNotValidException: {}", details);
 
         return new ResponseEntity<>(errorResponse, headers, status);
     }
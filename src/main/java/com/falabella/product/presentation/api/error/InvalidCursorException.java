@@ -0,0 +1,11 @@
+package com.falabella.product.presentation.api.error;
+
+/**
+ * @author german
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.falabella.product.presentation.api.error;
+
+/**
+ * @author german
+ */
+public class InvalidFieldsException extends RuntimeException {
+
+    public InvalidFieldsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.falabella.product.presentation.api.error;
+
+/**
+ * @author german
+ */
+public class InvalidSearchException extends RuntimeException {
+
+    public InvalidSearchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.falabella.product.presentation.api.error;
+
+/**
+ * @author german
+ */
+public class TooManySkusException extends RuntimeException {
+
+    public TooManySkusException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,212 @@
+package com.falabella.product.presentation.api.filter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One key=value line per sampled request with sku, status, latency and response size. Requests
+ * left out of the sample are not wrapped at all, server errors are always logged.
+ *
+ * @author german
+ */
+@Component
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("com.falabella.product.access");
+
+    private final double sampleRate;
+
+    public AccessLogFilter(@Value("${product.access-log.sample-rate:1.0}") double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!ACCESS_LOG.isInfoEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        CountingResponse countingResponse = sampled ? new CountingResponse(response) : null;
+        try {
+            chain.doFilter(request, sampled ? countingResponse : response);
+        } catch (ServletException | IOException | RuntimeException e) {
+            // no handler answered it, the status is still the one set before and the container sends a 500
+            log(request, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, countingResponse, sampled, start);
+            throw e;
+        }
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    log(request, response.getStatus(), countingResponse, sampled, start);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+        } else {
+            log(request, response.getStatus(), countingResponse, sampled, start);
+        }
+    }
+
+    private void log(HttpServletRequest request, int status, CountingResponse countingResponse,
+                     boolean sampled, long start) {
+        if (!sampled && status < HttpServletResponse.SC_INTERNAL_SERVER_ERROR) {
+            return;
+        }
+        ACCESS_LOG.info("method={} path={} sku={} status={} latency_ms={} bytes={}",
+                request.getMethod(),
+                request.getRequestURI(),
+                sku(request),
+                status,
+                (System.nanoTime() - start) / 1_000_000,
+                countingResponse == null ? -1 : countingResponse.getCount());
+    }
+
+    @SuppressWarnings("unchecked")
+    private String sku(HttpServletRequest request) {
+        Map<String, String> uriVariables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (uriVariables != null && uriVariables.containsKey("sku")) {
+            return uriVariables.get("sku");
+        }
+        String[] skus = request.getParameterValues("sku");
+        return skus == null ? "-" : String.join(",", skus);
+    }
+
+    /**
+     * Counts the bytes written to the body without buffering them.
+     */
+    private static class CountingResponse extends HttpServletResponseWrapper {
+
+        private CountingOutputStream outputStream;
+        private CountingWriter writer;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new CountingWriter(super.getWriter());
+            }
+            return writer;
+        }
+
+        long getCount() {
+            return (outputStream == null ? 0 : outputStream.count) + (writer == null ? 0 : writer.count);
+        }
+    }
+
+    /**
+     * Counts characters, which is the byte count for the ascii bodies written through a writer.
+     */
+    private static class CountingWriter extends PrintWriter {
+
+        private long count;
+
+        CountingWriter(Writer delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void write(int c) {
+            super.write(c);
+            count++;
+        }
+
+        @Override
+        public void write(char[] buf, int off, int len) {
+            super.write(buf, off, len);
+            count += len;
+        }
+
+        @Override
+        public void write(String s, int off, int len) {
+            super.write(s, off, len);
+            count += len;
+        }
+    }
+
+    private static class CountingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private long count;
+
+        CountingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+
+}
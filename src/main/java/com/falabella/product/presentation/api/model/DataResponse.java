@@ -1,14 +1,19 @@
 package com.falabella.product.presentation.api.model;
 
 import com.falabella.product.domain.model.Product;
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import lombok.Builder;
 import lombok.Data;
 import lombok.ToString;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
 
 /**
  * @author german
@@ -16,19 +21,36 @@ import java.util.List;
 @Data
 @Builder
 @ToString
+@JsonSerialize(using = DataResponse.FieldsSerializer.class)
 public class DataResponse implements Serializable {
 
+    public static final String SKU = "sku";
+    public static final String NAME = "name";
+    public static final String BRAND = "brand";
+    public static final String SIZE = "size";
+    public static final String PRICE = "price";
+    public static final String PRINCIPAL_IMAGE = "principal_image";
+    public static final String OTHER_IMAGES = "other_images";
+    public static final Set<String> FIELDS = Set.of(SKU, NAME, BRAND, SIZE, PRICE, PRINCIPAL_IMAGE, OTHER_IMAGES);
+
     private String sku;
     private String name;
     private String brand;
     private String size;
     private BigDecimal price;
-    @JsonProperty(value = "principal_image")
     private String principalImage;
-    @JsonProperty(value = "other_images")
     private List<String> otherImages;
 
+    /**
+     * Fields to render, {@code null} renders all of them.
+     */
+    private Set<String> fields;
+
     public static DataResponse of(Product product) {
+        return of(product, null);
+    }
+
+    public static DataResponse of(Product product, Set<String> fields) {
         return DataResponse.builder()
                 .sku(product.getSku())
                 .name(product.getName())
@@ -36,7 +58,38 @@ public class DataResponse implements Serializable {
                 .size(product.getSize())
                 .price(product.getPrice())
                 .principalImage(product.getPrincipalImage())
-                .otherImages(product.getOtherImages()).build();
+                .otherImages(product.getOtherImages())
+                .fields(fields).build();
+    }
+
+    /**
+     * Writes the fields in declaration order, skipping the ones left out of the sparse fieldset.
+     */
+    static class FieldsSerializer extends StdSerializer<DataResponse> {
+
+        FieldsSerializer() {
+            super(DataResponse.class);
+        }
+
+        @Override
+        public void serialize(DataResponse data, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(data);
+            writeField(data, SKU, data.getSku(), generator, provider);
+            writeField(data, NAME, data.getName(), generator, provider);
+            writeField(data, BRAND, data.getBrand(), generator, provider);
+            writeField(data, SIZE, data.getSize(), generator, provider);
+            writeField(data, PRICE, data.getPrice(), generator, provider);
+            writeField(data, PRINCIPAL_IMAGE, data.getPrincipalImage(), generator, provider);
+            writeField(data, OTHER_IMAGES, data.getOtherImages(), generator, provider);
+            generator.writeEndObject();
+        }
+
+        private void writeField(DataResponse data, String name, Object value, JsonGenerator generator,
+                                SerializerProvider provider) throws IOException {
+            if (data.getFields() == null || data.getFields().contains(name)) {
+                provider.defaultSerializeField(name, value, generator);
+            }
+        }
     }
 
 }
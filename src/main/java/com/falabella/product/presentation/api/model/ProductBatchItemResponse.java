@@ -0,0 +1,30 @@
+package com.falabella.product.presentation.api.model;
+
+import com.falabella.product.domain.model.ProductBatchResult;
+import lombok.Builder;
+import lombok.Data;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * @author german
+ */
+@Data
+@Builder
+@ToString
+public class ProductBatchItemResponse implements Serializable {
+
+    private String sku;
+    private ProductBatchResult.Status status;
+    private List<String> details;
+
+    public static ProductBatchItemResponse of(ProductBatchResult result) {
+        return ProductBatchItemResponse.builder()
+                .sku(result.getSku())
+                .status(result.getStatus())
+                .details(result.getDetails()).build();
+    }
+
+}
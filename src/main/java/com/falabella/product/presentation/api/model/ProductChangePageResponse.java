@@ -0,0 +1,18 @@
+package com.falabella.product.presentation.api.model;
+
+import lombok.*;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * @author german
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@AllArgsConstructor
+public class ProductChangePageResponse extends RepresentationModel<ProductChangePageResponse> implements Serializable {
+    private final List<ProductChangeResponse> data;
+    private final String cursor;
+}
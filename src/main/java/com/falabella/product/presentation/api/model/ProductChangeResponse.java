@@ -0,0 +1,36 @@
+package com.falabella.product.presentation.api.model;
+
+import com.falabella.product.domain.model.ProductChange;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Data;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * @author german
+ */
+@Data
+@Builder
+@ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductChangeResponse implements Serializable {
+
+    private String sku;
+    @JsonProperty("changed_at")
+    private Instant changedAt;
+    private boolean deleted;
+    private DataResponse product;
+
+    public static ProductChangeResponse of(ProductChange change) {
+        return ProductChangeResponse.builder()
+                .sku(change.getSku())
+                .changedAt(change.getChangedAt())
+                .deleted(change.isDeleted())
+                .product(change.isDeleted() ? null : DataResponse.of(change.getProduct())).build();
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.falabella.product.presentation.api.model;
+
+import com.falabella.product.domain.model.ProductEvent;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Data;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * @author german
+ */
+@Data
+@Builder
+@ToString
+public class ProductEventResponse implements Serializable {
+
+    private long sequence;
+    private String sku;
+    private ProductEvent.Type type;
+    private Long version;
+    @JsonProperty("created_at")
+    private Instant createdAt;
+
+    public static ProductEventResponse of(ProductEvent event) {
+        return ProductEventResponse.builder()
+                .sequence(event.getSequence())
+                .sku(event.getSku())
+                .type(event.getType())
+                .version(event.getVersion())
+                .createdAt(event.getCreatedAt()).build();
+    }
+
+}
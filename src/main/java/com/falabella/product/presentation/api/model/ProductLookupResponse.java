@@ -0,0 +1,18 @@
+package com.falabella.product.presentation.api.model;
+
+import lombok.*;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * @author german
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@AllArgsConstructor
+public class ProductLookupResponse extends RepresentationModel<ProductLookupResponse> implements Serializable {
+    private final List<ProductResponse> data;
+    private final List<String> missing;
+}
@@ -0,0 +1,17 @@
+package com.falabella.product.presentation.api.model;
+
+import lombok.*;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * @author german
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@AllArgsConstructor
+public class ProductPageResponse extends RepresentationModel<ProductPageResponse> implements Serializable {
+    private final List<ProductResponse> data;
+}
@@ -0,0 +1,26 @@
+package com.falabella.product.presentation.api.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.ToString;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * @author german
+ */
+@Data
+@ToString
+public class ProductPriceRequest implements Serializable {
+
+    @NotNull(message = "You must enter a value")
+    @JsonProperty(required = true)
+    @DecimalMin(value = "1.00", message = "The minimum value is 1.00")
+    @DecimalMax(value = "99999999.00", message = "The maximum value is 99999999.00")
+    private BigDecimal price;
+
+}
@@ -1,13 +1,13 @@
 package com.falabella.product.presentation.api.model;
 
 import com.falabella.product.domain.model.Product;
+import com.falabella.product.presentation.api.validation.ValidSku;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
 import javax.validation.constraints.NotBlank;
-import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 import java.io.Serializable;
 
@@ -21,7 +21,7 @@ public class ProductRequest extends ProductModel implements Serializable {
 
     @NotBlank(message = "You must enter a value")
     @Size(min = 11, max = 12, message = "The value must be between 11 and 12 characters")
-    @Pattern(regexp = "\\bFAL\\b-\\d*", message = "It must comply with the format FAL-XXXXXXX, where X is a number")
+    @ValidSku
     @JsonProperty(required = true)
     private String sku;
 
@@ -0,0 +1,20 @@
+package com.falabella.product.presentation.api.model;
+
+import lombok.*;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author german
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@AllArgsConstructor
+public class ProductSearchResponse extends RepresentationModel<ProductSearchResponse> implements Serializable {
+    private final List<ProductResponse> data;
+    private final int total;
+    private final Map<String, Integer> brands;
+}
@@ -0,0 +1,20 @@
+package com.falabella.product.presentation.api.validation;
+
+import com.falabella.product.domain.model.Sku;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * Checks the characters in place instead of matching a regular expression on every request.
+ *
+ * @author german
+ */
+public class SkuValidator implements ConstraintValidator<ValidSku, CharSequence> {
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || Sku.isValid(value);
+    }
+
+}
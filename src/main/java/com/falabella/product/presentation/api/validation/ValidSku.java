@@ -0,0 +1,28 @@
+package com.falabella.product.presentation.api.validation;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The value is a {@link com.falabella.product.domain.model.Sku}, {@code null} is valid.
+ *
+ * @author german
+ */
+@Documented
+@Constraint(validatedBy = SkuValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidSku {
+
+    String message() default "It must comply with the format FAL-XXXXXXX, where X is a number";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+}
@@ -0,0 +1,21 @@
+create table PRODUCT (
+    SKU varchar(12) not null,
+    NAME varchar(50) not null,
+    BRAND varchar(50) not null,
+    SIZE varchar(255),
+    PRICE decimal(19, 2) not null,
+    PRINCIPAL_IMAGE varchar(255) not null,
+    VERSION bigint not null,
+    primary key (SKU)
+);
+
+create table PRODUCT_ENTITY_OTHER_IMAGES (
+    PRODUCT_ENTITY_SKU varchar(12) not null,
+    IMAGE_ORDER integer not null,
+    OTHER_IMAGES varchar(255),
+    primary key (PRODUCT_ENTITY_SKU, IMAGE_ORDER),
+    constraint FK_PRODUCT_OTHER_IMAGES_PRODUCT foreign key (PRODUCT_ENTITY_SKU) references PRODUCT (SKU)
+);
+
+create index IDX_PRODUCT_BRAND_PRICE on PRODUCT (BRAND, PRICE);
+create index IDX_PRODUCT_PRICE on PRODUCT (PRICE);
@@ -0,0 +1,8 @@
+-- numeric form of the sku, the digits after FAL- with a leading 1 so leading zeros are kept
+alter table PRODUCT add column SKU_KEY bigint;
+
+update PRODUCT set SKU_KEY = cast(concat('1', substring(SKU, 5)) as bigint);
+
+alter table PRODUCT alter column SKU_KEY set not null;
+
+create unique index IDX_PRODUCT_SKU_KEY on PRODUCT (SKU_KEY);
@@ -0,0 +1,14 @@
+-- transactional outbox of product changes, SEQUENCE_NUMBER is assigned once the change committed
+create sequence PRODUCT_EVENT_ID_SEQ start with 1 increment by 50;
+
+create table PRODUCT_EVENT (
+    ID bigint not null,
+    SEQUENCE_NUMBER bigint,
+    SKU varchar(12) not null,
+    EVENT_TYPE varchar(10) not null,
+    VERSION bigint,
+    CREATED_AT timestamp not null,
+    primary key (ID)
+);
+
+create unique index IDX_PRODUCT_EVENT_SEQUENCE on PRODUCT_EVENT (SEQUENCE_NUMBER);
@@ -0,0 +1,18 @@
+-- change times for incremental reads, existing rows count as changed when the column is added
+alter table PRODUCT add column CREATED_AT timestamp;
+alter table PRODUCT add column UPDATED_AT timestamp;
+
+update PRODUCT set CREATED_AT = current_timestamp, UPDATED_AT = current_timestamp;
+
+alter table PRODUCT alter column CREATED_AT set not null;
+alter table PRODUCT alter column UPDATED_AT set not null;
+
+create index IDX_PRODUCT_UPDATED_AT on PRODUCT (UPDATED_AT, SKU);
+
+create table PRODUCT_TOMBSTONE (
+    SKU varchar(12) not null,
+    DELETED_AT timestamp not null,
+    primary key (SKU)
+);
+
+create index IDX_PRODUCT_TOMBSTONE_DELETED_AT on PRODUCT_TOMBSTONE (DELETED_AT, SKU);
@@ -0,0 +1,47 @@
+package com.falabella.product.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SkuTest {
+
+    @Test
+    void shouldRoundTripThroughKey() {
+
+        Sku sku = Sku.parse("FAL-1000001");
+
+        assertThat(sku.getKey()).isEqualTo(11000001L);
+        assertThat(sku.toString()).isEqualTo("FAL-1000001");
+        assertThat(Sku.fromKey(sku.getKey())).isEqualTo(sku);
+        assertThat(Sku.parse("FAL-").toString()).isEqualTo("FAL-");
+
+    }
+
+    @Test
+    void shouldKeepLeadingZeros() {
+
+        assertThat(Sku.parse("FAL-0012")).isNotEqualTo(Sku.parse("FAL-12"));
+        assertThat(Sku.parse("FAL-0012").toString()).isEqualTo("FAL-0012");
+        assertThat(Sku.parse("FAL-999999999999999999").toString()).isEqualTo("FAL-999999999999999999");
+
+    }
+
+    @Test
+    void shouldRejectOtherValues() {
+
+        assertThat(Sku.isValid("FAL-1000001")).isTrue();
+        assertThat(Sku.isValid(null)).isFalse();
+        assertThat(Sku.isValid("FAL")).isFalse();
+        assertThat(Sku.isValid("fal-1000001")).isFalse();
+        assertThat(Sku.isValid("FAL-10000O1")).isFalse();
+        assertThat(Sku.isValid("FAL-1000001 ")).isFalse();
+        assertThat(Sku.isValid("FAL-٣")).isFalse();
+        assertThat(Sku.isValid("FAL-1000000000000000000")).isFalse();
+        assertThrows(IllegalArgumentException.class, () -> Sku.parse("XYZ-1000001"));
+        assertThrows(IllegalArgumentException.class, () -> Sku.fromKey(21000001L));
+
+    }
+
+}
@@ -0,0 +1,360 @@
+package com.falabella.product.infrastructure.adapter;
+
+import com.falabella.product.domain.model.Product;
+import com.falabella.product.domain.model.ProductBatchResult;
+import com.falabella.product.domain.model.ProductChange;
+import com.falabella.product.domain.model.ProductChangePage;
+import com.falabella.product.domain.model.ProductChangeQuery;
+import com.falabella.product.domain.model.ProductEvent;
+import com.falabella.product.domain.model.ProductPage;
+import com.falabella.product.domain.model.ProductQuery;
+import com.falabella.product.domain.model.Sku;
+import com.falabella.product.infrastructure.adapter.model.ProductEntity;
+import com.falabella.product.infrastructure.adapter.model.ProductEventEntity;
+import com.falabella.product.infrastructure.config.CacheConfig;
+import com.falabella.product.infrastructure.outbox.ProductOutbox;
+import com.falabella.product.infrastructure.search.ProductIndex;
+import com.falabella.product.infrastructure.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true", "product.changes.safety-lag=1s"})
+@Import({ProductService.class, ProductOutbox.class, ProductIndex.class, CacheConfig.class, SimpleMeterRegistry.class})
+class ProductRepositoryTest {
+
+    private static final int PRODUCTS = 20;
+    private static final Instant UNTIL = Instant.parse("9999-12-31T00:00:00Z");
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < PRODUCTS; i++) {
+            entityManager.persist(buildProductEntity(String.format("FAL-%07d", i)));
+        }
+        // takes a block of event ids up front so the counts below do not depend on the test order
+        entityManager.persist(ProductEventEntity.builder()
+                .sku("FAL-0000000")
+                .type(ProductEvent.Type.CREATED)
+                .version(0L)
+                .createdAt(Instant.now()).build());
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldFindAllWithImagesInOneStatement() {
+
+        List<Product> productList = repository.findAll().stream()
+                .map(ProductEntity::toDomain)
+                .collect(Collectors.toList());
+
+        assertThat(productList).hasSize(PRODUCTS);
+        assertThat(productList).allSatisfy(product -> assertThat(product.getOtherImages()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+    }
+
+    @Test
+    void shouldFindByIdWithImagesInOneStatement() {
+
+        Product product = repository.findById("FAL-0000001").map(ProductEntity::toDomain).orElseThrow();
+
+        assertThat(product.getOtherImages()).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+    }
+
+    @Test
+    void shouldFindBySkuKeyWithImagesInOneStatement() {
+
+        ProductEntity productEntity = repository.findBySkuKey(Sku.parse("FAL-0000001")).orElseThrow();
+
+        assertThat(productEntity.getSku()).isEqualTo("FAL-0000001");
+        assertThat(productEntity.getSkuKey().getKey()).isEqualTo(10000001L);
+        assertThat(productEntity.getOtherImages()).hasSize(2);
+        assertThat(repository.findBySkuKey(Sku.parse("FAL-1"))).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+    }
+
+    @Test
+    void shouldFindBySkusWithImagesInOneStatement() {
+
+        List<Product> productList = repository.findAllWithImagesBySkuKeyIn(Stream.of("FAL-0000001", "FAL-0000002", "FAL-9999999")
+                        .map(Sku::parse).collect(Collectors.toList())).stream()
+                .map(ProductEntity::toDomain)
+                .collect(Collectors.toList());
+
+        assertThat(productList).extracting(Product::getSku).containsExactlyInAnyOrder("FAL-0000001", "FAL-0000002");
+        assertThat(productList).allSatisfy(product -> assertThat(product.getOtherImages()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+    }
+
+    @Test
+    void shouldBatchFetchImagesOfPage() {
+
+        List<Product> productList = repository.findPage(ProductQuery.builder().build(), 10).stream()
+                .map(ProductEntity::toDomain)
+                .collect(Collectors.toList());
+
+        assertThat(productList).hasSize(10);
+        assertThat(productList).allSatisfy(product -> assertThat(product.getOtherImages()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+    }
+
+    @Test
+    void shouldGetSummaryPageWithoutImagesInOneStatement() {
+
+        ProductPage page = service.getProducts(ProductQuery.builder().limit(10).withoutImages(true).build());
+
+        assertThat(page.getProducts()).hasSize(10);
+        assertThat(page.getProducts()).allSatisfy(product -> assertThat(product.getOtherImages()).isNull());
+        assertThat(page.getProducts().get(0).getPrincipalImage()).isEqualTo("http://localhost/image");
+        assertThat(page.getNext()).isEqualTo("FAL-0000009");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+    }
+
+    @Test
+    void shouldSelectOnlyRequestedColumnsOfSummaryPage() {
+
+        ProductPage page = service.getProducts(ProductQuery.builder()
+                .limit(10)
+                .brand("some-brand")
+                .withoutImages(true)
+                .fields(Set.of("name", "price")).build());
+
+        assertThat(page.getProducts()).hasSize(10).allSatisfy(product -> {
+            assertThat(product.getName()).isNotNull();
+            assertThat(product.getPrice()).isNotNull();
+            assertThat(product.getBrand()).isNull();
+            assertThat(product.getPrincipalImage()).isNull();
+        });
+
+    }
+
+    @Test
+    void shouldFindPageByBrandAndPriceRange() {
+
+        ProductEntity other = buildProductEntity("FAL-0000099");
+        other.setBrand("other-brand");
+        entityManager.persist(other);
+        ProductEntity expensive = buildProductEntity("FAL-0000098");
+        expensive.setPrice(new BigDecimal("10.00"));
+        entityManager.persist(expensive);
+        entityManager.flush();
+
+        ProductQuery query = ProductQuery.builder()
+                .after("FAL-0000009")
+                .brand("some-brand")
+                .minPrice(new BigDecimal("1.00"))
+                .maxPrice(new BigDecimal("5.00")).build();
+
+        List<ProductEntity> productEntityList = repository.findPage(query, 100);
+
+        assertThat(productEntityList).extracting(ProductEntity::getSku)
+                .hasSize(PRODUCTS - 10)
+                .isSorted()
+                .doesNotContain("FAL-0000098", "FAL-0000099")
+                .startsWith("FAL-0000010");
+
+        query.setBrand("other-brand");
+        query.setMinPrice(null);
+
+        assertThat(repository.findPage(query, 100)).extracting(ProductEntity::getSku).containsExactly("FAL-0000099");
+
+    }
+
+    @Test
+    void shouldBatchFetchImagesOfExport() {
+
+        List<Product> productList = new ArrayList<>();
+        service.exportProducts(productList::add);
+
+        assertThat(productList).hasSize(PRODUCTS);
+        assertThat(productList).allSatisfy(product -> assertThat(product.getOtherImages()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+    }
+
+    @Test
+    void shouldUpdateOnlyChangedColumnsAndImages() {
+
+        Product product = buildProductEntity("FAL-0000001").toDomain();
+        product.setPrice(new BigDecimal("2.00"));
+        product.setOtherImages(List.of("http://localhost/other-image-1", "http://localhost/other-image-3"));
+
+        Product updated = service.updateProductBySku("FAL-0000001", product);
+
+        // select with images, update price, update one image row
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(updated.getPrice()).isEqualByComparingTo("2.00");
+        assertThat(updated.getVersion()).isEqualTo(1L);
+        assertThat(updated.getOtherImages()).containsExactly("http://localhost/other-image-1", "http://localhost/other-image-3");
+
+    }
+
+    @Test
+    void shouldUpsertProductsInJdbcBatches() {
+
+        List<Product> productList = new ArrayList<>();
+        for (int i = PRODUCTS - 5; i < PRODUCTS + 15; i++) {
+            productList.add(buildProductEntity(String.format("FAL-%07d", i)).toDomain());
+        }
+
+        List<ProductBatchResult> results = service.saveProducts(productList);
+
+        // select existing with images, batch insert products, batch insert images of the new products, batch insert events
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        assertThat(results).filteredOn(result -> result.getStatus() == ProductBatchResult.Status.UPDATED).hasSize(5);
+        assertThat(results).filteredOn(result -> result.getStatus() == ProductBatchResult.Status.CREATED).hasSize(15);
+        assertThat(repository.count()).isEqualTo(PRODUCTS + 15);
+
+    }
+
+    @Test
+    void shouldUpdateChangedPricesInJdbcBatches() {
+
+        List<ProductBatchResult> results = service.updatePrices(Map.of(
+                "FAL-0000001", new BigDecimal("2.00"),
+                "FAL-0000002", new BigDecimal("1.0"),
+                "FAL-0000003", new BigDecimal("3.00"),
+                "FAL-9999999", new BigDecimal("2.00")), sku -> false);
+
+        // select with images, batch update prices, batch insert events
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(results).filteredOn(result -> result.getStatus() == ProductBatchResult.Status.UPDATED)
+                .extracting(ProductBatchResult::getSku)
+                .containsExactlyInAnyOrder("FAL-0000001", "FAL-0000002", "FAL-0000003");
+        assertThat(results).filteredOn(result -> result.getStatus() == ProductBatchResult.Status.NOT_FOUND)
+                .extracting(ProductBatchResult::getSku)
+                .containsExactly("FAL-9999999");
+        assertThat(repository.findById("FAL-0000001").orElseThrow().getVersion()).isEqualTo(1L);
+        assertThat(repository.findById("FAL-0000002").orElseThrow().getVersion()).isEqualTo(0L);
+        assertThat(repository.findById("FAL-0000003").orElseThrow().getPrice()).isEqualByComparingTo("3.00");
+
+    }
+
+    @Test
+    void shouldFindChangedSinceByTimeAndSku() {
+
+        Instant since = Instant.parse("2026-10-18T10:00:00Z");
+        setUpdatedAt(since, "%");
+        setUpdatedAt(since.plusSeconds(1), "FAL-0000003");
+
+        List<ProductEntity> changes = repository.findChangedSince(since, "FAL-0000017", UNTIL, PageRequest.of(0, 10));
+
+        assertThat(changes).extracting(ProductEntity::getSku).containsExactly("FAL-0000018", "FAL-0000019", "FAL-0000003");
+
+    }
+
+    @Test
+    void shouldMoveUpdatedAtWhenOnlyImagesChange() {
+
+        setUpdatedAt(Instant.EPOCH, "%");
+        Product product = buildProductEntity("FAL-0000001").toDomain();
+        product.setOtherImages(List.of("http://localhost/other-image-3"));
+
+        service.updateProductBySku("FAL-0000001", product);
+
+        assertThat(repository.findChangedSince(Instant.EPOCH.plusMillis(1), "", UNTIL, PageRequest.of(0, 10)))
+                .extracting(ProductEntity::getSku)
+                .containsExactly("FAL-0000001");
+
+    }
+
+    @Test
+    void shouldTakeLastModifiedFromChangesAndDeletions() {
+
+        Instant updatedAt = Instant.parse("2026-10-18T10:00:00Z");
+        setUpdatedAt(updatedAt, "%");
+
+        assertThat(service.getLastModified()).isEqualTo(updatedAt);
+
+        service.deleteProductBySku("FAL-0000001");
+
+        assertThat(service.getLastModified()).isAfter(updatedAt);
+
+    }
+
+    @Test
+    void shouldReturnChangeCommittedBehindIssuedCursor() throws InterruptedException {
+
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        setUpdatedAt(now.minusSeconds(60), "%");
+        setUpdatedAt(now, "FAL-0000001");
+
+        ProductChangePage page = service.getChanges(ProductChangeQuery.builder().limit(100).build());
+
+        // the fresh change is held back, so the cursor stays behind anything still uncommitted
+        assertThat(page.getChanges()).hasSize(PRODUCTS - 1);
+        assertThat(page.getSince()).isEqualTo(now.minusSeconds(60));
+
+        // committed after the page was read, stamped before the change that was held back
+        setUpdatedAt(now.minusMillis(500), "FAL-0000002");
+        Thread.sleep(1100);
+
+        ProductChangePage next = service.getChanges(ProductChangeQuery.builder()
+                .since(page.getSince())
+                .after(page.getAfter())
+                .limit(100).build());
+
+        assertThat(next.getChanges()).extracting(ProductChange::getSku).containsExactly("FAL-0000002", "FAL-0000001");
+
+    }
+
+    private void setUpdatedAt(Instant updatedAt, String skuPattern) {
+        entityManager.getEntityManager()
+                .createQuery("update ProductEntity p set p.updatedAt = :updatedAt where p.sku like :sku")
+                .setParameter("updatedAt", updatedAt)
+                .setParameter("sku", skuPattern)
+                .executeUpdate();
+        entityManager.clear();
+    }
+
+    private ProductEntity buildProductEntity(String sku) {
+        return ProductEntity.builder()
+                .sku(sku)
+                .name("some-name")
+                .brand("some-brand")
+                .size("M")
+                .price(new BigDecimal("1.00"))
+                .principalImage("http://localhost/image")
+                .otherImages(List.of("http://localhost/other-image-1", "http://localhost/other-image-2")).build();
+    }
+}
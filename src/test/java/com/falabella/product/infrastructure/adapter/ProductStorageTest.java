@@ -0,0 +1,106 @@
+package com.falabella.product.infrastructure.adapter;
+
+import com.falabella.product.ProductApplication;
+import com.falabella.product.domain.model.Product;
+import com.falabella.product.domain.model.ProductEvent;
+import com.falabella.product.domain.model.ProductEventPage;
+import com.falabella.product.domain.model.ProductQuery;
+import com.falabella.product.domain.port.ProductEventOperations;
+import com.falabella.product.domain.port.ProductOperations;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * The prod profile against a file database created by the flyway migrations.
+ */
+class ProductStorageTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    @TempDir
+    Path storagePath;
+
+    @Test
+    void shouldKeepProductsAcrossRestarts() {
+
+        try (ConfigurableApplicationContext context = start()) {
+            ProductOperations productOperations = context.getBean(ProductOperations.class);
+            productOperations.saveProduct(buildProduct("FAL-1111111"));
+            productOperations.saveProducts(List.of(buildProduct("FAL-1111112"), buildProduct("FAL-1111113")));
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            ProductOperations productOperations = context.getBean(ProductOperations.class);
+
+            Product product = productOperations.getProductBySku("FAL-1111111");
+
+            assertThat(product.getOtherImages()).containsExactly("http://localhost/other-image-1", "http://localhost/other-image-2");
+            assertThat(product.getVersion()).isZero();
+            assertThat(productOperations.getProducts(ProductQuery.builder().brand("some-brand").limit(10).build()).getProducts())
+                    .extracting(Product::getSku)
+                    .containsExactly("FAL-1111111", "FAL-1111112", "FAL-1111113");
+        }
+
+    }
+
+    @Test
+    void shouldKeepEventSequenceAcrossRestarts() throws Exception {
+
+        try (ConfigurableApplicationContext context = start()) {
+            ProductOperations productOperations = context.getBean(ProductOperations.class);
+            productOperations.saveProduct(buildProduct("FAL-1111111"));
+            productOperations.saveProducts(List.of(buildProduct("FAL-1111112"), buildProduct("FAL-1111111")));
+            context.getBean(ProductEventOperations.class).awaitEvents(2, 10, WAIT).get(WAIT.toSeconds(), TimeUnit.SECONDS);
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            ProductOperations productOperations = context.getBean(ProductOperations.class);
+            ProductEventOperations eventOperations = context.getBean(ProductEventOperations.class);
+
+            ProductEventPage page = eventOperations.getEvents(0, 10);
+
+            assertThat(page.getEvents()).extracting(ProductEvent::getSequence).containsExactly(1L, 2L, 3L);
+            assertThat(page.getEvents()).extracting(ProductEvent::getType).containsExactly(
+                    ProductEvent.Type.CREATED, ProductEvent.Type.CREATED, ProductEvent.Type.UPDATED);
+
+            productOperations.deleteProductBySku("FAL-1111112");
+
+            assertThat(eventOperations.awaitEvents(3, 10, WAIT).get(WAIT.toSeconds(), TimeUnit.SECONDS).getEvents())
+                    .extracting(ProductEvent::getSequence, ProductEvent::getType)
+                    .containsExactly(tuple(4L, ProductEvent.Type.DELETED));
+        }
+
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(ProductApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("prod")
+                // an argument, default properties would lose to the path set by the prod profile
+                .run("--product.storage.path=" + storagePath);
+    }
+
+    private Product buildProduct(String sku) {
+        return Product.builder()
+                .sku(sku)
+                .name("some-name")
+                .brand("some-brand")
+                .size("M")
+                .price(new BigDecimal("1.00"))
+                .principalImage("http://localhost/image")
+                .otherImages(List.of("http://localhost/other-image-1", "http://localhost/other-image-2")).build();
+    }
+
+}
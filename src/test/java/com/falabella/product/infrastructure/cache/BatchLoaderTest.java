@@ -0,0 +1,184 @@
+package com.falabella.product.infrastructure.cache;
+
+import com.falabella.product.domain.error.ProductBackpressureException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BatchLoaderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<List<String>> batches;
+    private BatchLoader<String, String> batchLoader;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        batches = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchLoader.close();
+    }
+
+    @Test
+    void shouldLoadFullBatchWithoutWaitingForTheWindow() throws Exception {
+
+        batchLoader = batchLoader(3, Duration.ofMinutes(1), keys -> keys.stream()
+                .filter(key -> !key.equals("FAL-1111113"))
+                .collect(Collectors.toMap(Function.identity(), key -> "product " + key)));
+
+        CompletableFuture<String> first = batchLoader.load("FAL-1111111");
+        CompletableFuture<String> second = batchLoader.load("FAL-1111112");
+        CompletableFuture<String> third = batchLoader.load("FAL-1111113");
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("product FAL-1111111");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("product FAL-1111112");
+        assertThat(third.get(5, TimeUnit.SECONDS)).isNull();
+        assertThat(batches).containsExactly(List.of("FAL-1111111", "FAL-1111112", "FAL-1111113"));
+        DistributionSummary batchSizes = meterRegistry.get(BatchLoader.METRIC).summary();
+        assertThat(batchSizes.count()).isEqualTo(1);
+        assertThat(batchSizes.totalAmount()).isEqualTo(3.0);
+
+    }
+
+    @Test
+    void shouldLoadPartialBatchOnceTheWindowEnds() throws Exception {
+
+        batchLoader = batchLoader(64, Duration.ofMillis(20), keys -> keys.stream()
+                .collect(Collectors.toMap(Function.identity(), key -> "product " + key)));
+
+        CompletableFuture<String> first = batchLoader.load("FAL-1111111");
+        CompletableFuture<String> duplicate = batchLoader.load("FAL-1111111");
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("product FAL-1111111");
+        assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo("product FAL-1111111");
+        assertThat(batches).containsExactly(List.of("FAL-1111111"));
+        assertThat(batchLoader.get("FAL-1111112")).isEqualTo("product FAL-1111112");
+        assertThat(batches).hasSize(2);
+
+    }
+
+    @Test
+    void shouldFailEveryLoadOfAFailedBatch() {
+
+        batchLoader = batchLoader(2, Duration.ofMinutes(1), keys -> {
+            throw new IllegalStateException("connection lost");
+        });
+
+        CompletableFuture<String> first = batchLoader.load("FAL-1111111");
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> batchLoader.get("FAL-1111112"));
+
+        assertThat(exception).hasMessage("connection lost");
+        assertThat(assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS)))
+                .hasCauseInstanceOf(IllegalStateException.class);
+
+    }
+
+    @Test
+    void shouldReadKeyAloneWhenQueueIsFull() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        batchLoader = new BatchLoader<>("product", keys -> {
+            batches.add(keys);
+            if (!keys.equals(List.of("FAL-1111119"))) {
+                await(release);
+            }
+            return keys.stream().collect(Collectors.toMap(Function.identity(), key -> "product " + key));
+        }, 1, Duration.ofMillis(1), 1, 2, Duration.ofSeconds(5), meterRegistry);
+
+        CompletableFuture<String> running = batchLoader.load("FAL-1111111");
+        await(() -> batches.size() == 1);
+        // the second batch waits for the pool, the gatherer reads the third itself
+        CompletableFuture<String> pooled = batchLoader.load("FAL-1111112");
+        CompletableFuture<String> gathered = batchLoader.load("FAL-1111113");
+        await(() -> batches.size() == 2);
+        CompletableFuture<String> queued = batchLoader.load("FAL-1111114");
+        CompletableFuture<String> queuedToo = batchLoader.load("FAL-1111115");
+        CompletableFuture<String> rejected = batchLoader.load("FAL-1111116");
+
+        assertThat(assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS)))
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(batchLoader.get("FAL-1111119")).isEqualTo("product FAL-1111119");
+        assertThat(meterRegistry.get(BatchLoader.OVERFLOW_METRIC).counter().count()).isEqualTo(2.0);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("product FAL-1111111");
+        assertThat(pooled.get(5, TimeUnit.SECONDS)).isEqualTo("product FAL-1111112");
+        assertThat(gathered.get(5, TimeUnit.SECONDS)).isEqualTo("product FAL-1111113");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("product FAL-1111114");
+        assertThat(queuedToo.get(5, TimeUnit.SECONDS)).isEqualTo("product FAL-1111115");
+
+    }
+
+    @Test
+    void shouldGiveUpWaitingAfterTheTimeout() {
+
+        CountDownLatch release = new CountDownLatch(1);
+        batchLoader = new BatchLoader<>("product", keys -> {
+            await(release);
+            return Map.of();
+        }, 2, Duration.ofMillis(1), 1, 16, Duration.ofMillis(50), meterRegistry);
+
+        try {
+            assertThat(assertThrows(ProductBackpressureException.class, () -> batchLoader.get("FAL-1111111")))
+                    .hasMessage("Batch load of product FAL-1111111 timed out, retry later");
+        } finally {
+            release.countDown();
+        }
+
+    }
+
+    @Test
+    void shouldFailLoadsAfterClose() {
+
+        batchLoader = batchLoader(2, Duration.ofMillis(1), keys -> Map.of());
+        batchLoader.close();
+
+        assertThat(assertThrows(IllegalStateException.class, () -> batchLoader.get("FAL-1111111")))
+                .hasMessage("product batch loader is closed");
+
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private BatchLoader<String, String> batchLoader(int maxSize, Duration window, Function<List<String>, Map<String, String>> bulkLoad) {
+        return new BatchLoader<>("product", keys -> {
+            batches.add(keys);
+            return bulkLoad.apply(keys);
+        }, maxSize, window, 2, 16, Duration.ofSeconds(5), meterRegistry);
+    }
+
+}
@@ -0,0 +1,142 @@
+package com.falabella.product.infrastructure.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight<String, String> singleFlight;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("product", meterRegistry);
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldShareOneLoadBetweenConcurrentCalls() throws Exception {
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("FAL-1111111", () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "product";
+        }));
+        loading.await(5, TimeUnit.SECONDS);
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 1; i < CALLERS; i++) {
+            followers.add(executor.submit(() -> singleFlight.execute("FAL-1111111", () -> {
+                loads.incrementAndGet();
+                return "other";
+            })));
+        }
+        waitForCoalesced(CALLERS - 1);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("product");
+        for (Future<String> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("product");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(count("loaded")).isEqualTo(1.0);
+        assertThat(count("coalesced")).isEqualTo(CALLERS - 1.0);
+
+    }
+
+    @Test
+    void shouldShareTheLoadFailure() throws Exception {
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("FAL-1111111", () -> {
+            loading.countDown();
+            await(release);
+            throw new IllegalStateException("connection lost");
+        }));
+        loading.await(5, TimeUnit.SECONDS);
+        Future<IllegalStateException> follower = executor.submit(() ->
+                assertThrows(IllegalStateException.class, () -> singleFlight.execute("FAL-1111111", () -> "product")));
+        waitForCoalesced(1);
+        release.countDown();
+
+        assertThat(follower.get(5, TimeUnit.SECONDS)).hasMessage("connection lost");
+        assertThat(executorFailure(leader)).hasMessageContaining("connection lost");
+        assertThat(singleFlight.execute("FAL-1111111", () -> "product")).isEqualTo("product");
+
+    }
+
+    @Test
+    void shouldStartNewLoadAfterForget() throws Exception {
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("FAL-1111111", () -> {
+            loading.countDown();
+            await(release);
+            return "before";
+        }));
+        loading.await(5, TimeUnit.SECONDS);
+        singleFlight.forget("FAL-1111111");
+
+        assertThat(singleFlight.execute("FAL-1111111", () -> "after")).isEqualTo("after");
+
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("before");
+        assertThat(count("coalesced")).isZero();
+
+    }
+
+    private void waitForCoalesced(int calls) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("coalesced") < calls && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private double count(String result) {
+        return meterRegistry.get(SingleFlight.METRIC).tag("result", result).counter().count();
+    }
+
+    private static Throwable executorFailure(Future<?> future) {
+        return assertThrows(Exception.class, () -> future.get(5, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
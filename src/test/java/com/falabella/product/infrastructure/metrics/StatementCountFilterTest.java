@@ -0,0 +1,97 @@
+package com.falabella.product.infrastructure.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementCountFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StatementCounter statementCounter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        statementCounter = new StatementCounter(meterRegistry);
+    }
+
+    @Test
+    void shouldRecordStatementsPerRequest() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/product/FAL-1111111");
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/product/{sku}");
+                statementCounter.inspect("select 1");
+                statementCounter.inspect("select 2");
+            }
+        });
+
+        new StatementCountFilter(statementCounter, meterRegistry).doFilter(request, new MockHttpServletResponse(), chain);
+
+        DistributionSummary summary = meterRegistry.get(StatementCountFilter.METRIC)
+                .tag("method", "GET")
+                .tag("uri", "/api/v1/product/{sku}")
+                .summary();
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get("product.db.statements").counter().count()).isEqualTo(2);
+
+    }
+
+    @Test
+    void shouldRecordStatementsOfAsyncRequestOnCompletion() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/export");
+        request.setAsyncSupported(true);
+        AtomicReference<Runnable> export = new AtomicReference<>();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/products/export");
+                request.startAsync();
+                statementCounter.inspect("select 1");
+                export.set(statementCounter.propagate(() -> statementCounter.inspect("select 2")));
+            }
+        });
+
+        new StatementCountFilter(statementCounter, meterRegistry).doFilter(request, new MockHttpServletResponse(), chain);
+        assertThat(meterRegistry.find(StatementCountFilter.METRIC).summary()).isNull();
+        Thread exportThread = new Thread(export.get());
+        exportThread.start();
+        exportThread.join();
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        DistributionSummary summary = meterRegistry.get(StatementCountFilter.METRIC)
+                .tag("uri", "/api/v1/products/export")
+                .summary();
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(2);
+
+    }
+
+    @Test
+    void shouldCountOutsideRequestsOnlyInTotal() {
+
+        assertThat(statementCounter.inspect("select 1")).isEqualTo("select 1");
+
+        assertThat(statementCounter.stop()).isZero();
+        assertThat(meterRegistry.get("product.db.statements").counter().count()).isEqualTo(1);
+
+    }
+
+}
@@ -0,0 +1,167 @@
+package com.falabella.product.infrastructure.outbox;
+
+import com.falabella.product.domain.model.ProductEvent;
+import com.falabella.product.domain.model.ProductEventPage;
+import com.falabella.product.infrastructure.adapter.ProductEventRepository;
+import com.falabella.product.infrastructure.adapter.model.ProductEventEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs outside a test transaction, the publisher only sees what the recording transactions committed.
+ */
+@DataJpaTest
+@Import(ProductOutbox.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductOutboxTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    @Autowired
+    private ProductOutbox outbox;
+
+    @SpyBean
+    private ProductEventRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private long last;
+
+    @BeforeEach
+    void setUp() {
+        Long lastSequence = repository.findLastSequence();
+        last = lastSequence == null ? 0 : lastSequence;
+    }
+
+    @Test
+    void shouldNumberCommittedEventsInOrder() throws Exception {
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.record("FAL-1111111", ProductEvent.Type.CREATED, 0L);
+            outbox.record("FAL-1111111", ProductEvent.Type.UPDATED, 1L);
+        });
+        transactionTemplate.executeWithoutResult(status -> outbox.record("FAL-1111111", ProductEvent.Type.DELETED, null));
+        outbox.publish();
+
+        ProductEventPage page = outbox.awaitEvents(last, 10, WAIT).get(WAIT.toSeconds(), TimeUnit.SECONDS);
+
+        assertThat(page.getEvents()).extracting(ProductEvent::getSequence).containsExactly(last + 1, last + 2, last + 3);
+        assertThat(page.getEvents()).extracting(ProductEvent::getType).containsExactly(
+                ProductEvent.Type.CREATED, ProductEvent.Type.UPDATED, ProductEvent.Type.DELETED);
+        assertThat(page.getNext()).isEqualTo(last + 3);
+        assertThat(outbox.getEvents(last + 2, 10).getEvents()).extracting(ProductEvent::getVersion).containsExactly((Long) null);
+
+    }
+
+    @Test
+    void shouldNotPublishRolledBackEvents() throws Exception {
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.record("FAL-1111112", ProductEvent.Type.CREATED, 0L);
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> outbox.record("FAL-1111113", ProductEvent.Type.CREATED, 0L));
+        outbox.publish();
+
+        ProductEventPage page = outbox.awaitEvents(last, 10, WAIT).get(WAIT.toSeconds(), TimeUnit.SECONDS);
+
+        assertThat(page.getEvents()).extracting(ProductEvent::getSku).containsExactly("FAL-1111113");
+
+    }
+
+    @Test
+    void shouldWakeWaiterWhenEventsArePublished() throws Exception {
+
+        CompletableFuture<ProductEventPage> waiting = outbox.awaitEvents(last, 10, WAIT);
+
+        assertThat(waiting).isNotDone();
+
+        transactionTemplate.executeWithoutResult(status -> outbox.record("FAL-1111114", ProductEvent.Type.CREATED, 0L));
+        outbox.publish();
+
+        assertThat(waiting.get(WAIT.toSeconds(), TimeUnit.SECONDS).getEvents())
+                .extracting(ProductEvent::getSku)
+                .containsExactly("FAL-1111114");
+
+    }
+
+    @Test
+    void shouldShareOneReadBetweenWaitersOnSameCursor() throws Exception {
+
+        clearInvocations(repository);
+        CompletableFuture<ProductEventPage> one = outbox.awaitEvents(last, 1, WAIT);
+        CompletableFuture<ProductEventPage> all = outbox.awaitEvents(last, 10, WAIT);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.record("FAL-1111118", ProductEvent.Type.CREATED, 0L);
+            outbox.record("FAL-1111118", ProductEvent.Type.UPDATED, 1L);
+        });
+        outbox.publish();
+
+        assertThat(one.get(WAIT.toSeconds(), TimeUnit.SECONDS).getEvents()).hasSize(1);
+        assertThat(one.get().getNext()).isEqualTo(last + 1);
+        assertThat(all.get(WAIT.toSeconds(), TimeUnit.SECONDS).getEvents()).hasSize(2);
+        // one read each when waiting starts, then a single one for both when woken
+        verify(repository, times(3)).findPublishedAfter(eq(last), any(Pageable.class));
+
+    }
+
+    @Test
+    void shouldRenumberAfterAnotherProcessPublished() throws Exception {
+
+        transactionTemplate.executeWithoutResult(status -> outbox.record("FAL-1111115", ProductEvent.Type.CREATED, 0L));
+        outbox.publish();
+        outbox.awaitEvents(last, 10, WAIT).get(WAIT.toSeconds(), TimeUnit.SECONDS);
+        // numbered by another process behind the back of this one
+        repository.save(ProductEventEntity.builder()
+                .sequence(last + 2)
+                .sku("FAL-1111116")
+                .type(ProductEvent.Type.CREATED)
+                .version(0L)
+                .createdAt(Instant.now()).build());
+
+        transactionTemplate.executeWithoutResult(status -> outbox.record("FAL-1111117", ProductEvent.Type.CREATED, 0L));
+        outbox.publish();
+        assertThat(outbox.awaitEvents(last + 2, 10, Duration.ofMillis(500)).get(WAIT.toSeconds(), TimeUnit.SECONDS)
+                .getEvents()).isEmpty();
+        outbox.publish();
+
+        assertThat(outbox.awaitEvents(last + 2, 10, WAIT).get(WAIT.toSeconds(), TimeUnit.SECONDS).getEvents())
+                .extracting(ProductEvent::getSequence, ProductEvent::getSku)
+                .containsExactly(tuple(last + 3, "FAL-1111117"));
+
+    }
+
+    @Test
+    void shouldAnswerEmptyPageWhenWaitEnds() throws Exception {
+
+        ProductEventPage page = outbox.awaitEvents(last, 10, Duration.ofMillis(50)).get(WAIT.toSeconds(), TimeUnit.SECONDS);
+
+        assertThat(page.getEvents()).isEmpty();
+        assertThat(page.getNext()).isEqualTo(last);
+
+    }
+
+}
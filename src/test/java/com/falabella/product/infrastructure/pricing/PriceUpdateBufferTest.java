@@ -0,0 +1,310 @@
+package com.falabella.product.infrastructure.pricing;
+
+import com.falabella.product.domain.error.ProductBackpressureException;
+import com.falabella.product.domain.model.ProductBatchResult;
+import com.falabella.product.infrastructure.service.ProductService;
+import com.falabella.product.infrastructure.service.ProductWriteEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PriceUpdateBufferTest {
+
+    @TempDir
+    Path journalPath;
+
+    private ProductService productService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        productService = Mockito.mock(ProductService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(productService.updatePrices(anyMap(), any())).thenAnswer(invocation -> results(invocation.getArgument(0),
+                ProductBatchResult.Status.UPDATED));
+    }
+
+    @Test
+    void shouldStoreLastPriceOfEachSku() {
+
+        PriceUpdateBuffer buffer = buffer(10, false);
+
+        buffer.updatePrice("FAL-1111111", new BigDecimal("10.00"));
+        buffer.updatePrice("FAL-1111112", new BigDecimal("5.00"));
+        buffer.updatePrice("FAL-1111111", new BigDecimal("11.00"));
+        buffer.updatePrice("not-a-sku", new BigDecimal("11.00"));
+
+        assertThat(buffer.size()).isEqualTo(2);
+
+        buffer.flush();
+
+        verify(productService).updatePrices(eq(Map.of(
+                "FAL-1111111", new BigDecimal("11.00"),
+                "FAL-1111112", new BigDecimal("5.00"))), any());
+        assertThat(buffer.size()).isZero();
+        assertThat(count("coalesced")).isEqualTo(1);
+        assertThat(count("stored")).isEqualTo(2);
+        assertThat(count("dropped")).isEqualTo(1);
+
+    }
+
+    @Test
+    void shouldRefuseNewSkusWhenFull() {
+
+        PriceUpdateBuffer buffer = buffer(2, false);
+        buffer.updatePrice("FAL-1111111", new BigDecimal("10.00"));
+        buffer.updatePrice("FAL-1111112", new BigDecimal("10.00"));
+
+        assertThatThrownBy(() -> buffer.updatePrice("FAL-1111113", new BigDecimal("10.00")))
+                .isInstanceOf(ProductBackpressureException.class);
+        // a sku already waiting only replaces its price
+        buffer.updatePrice("FAL-1111111", new BigDecimal("12.00"));
+
+        buffer.flush();
+        buffer.updatePrice("FAL-1111113", new BigDecimal("10.00"));
+
+        assertThat(buffer.size()).isEqualTo(1);
+        assertThat(count("rejected")).isEqualTo(1);
+
+    }
+
+    @Test
+    void shouldRetryPricesThatFailed() {
+
+        when(productService.updatePrices(anyMap(), any())).thenReturn(List.of(
+                result("FAL-1111111", ProductBatchResult.Status.FAILED),
+                result("FAL-1111112", ProductBatchResult.Status.NOT_FOUND)));
+        PriceUpdateBuffer buffer = buffer(10, false);
+        buffer.updatePrice("FAL-1111111", new BigDecimal("10.00"));
+        buffer.updatePrice("FAL-1111112", new BigDecimal("10.00"));
+
+        buffer.flush();
+
+        assertThat(buffer.size()).isEqualTo(1);
+        assertThat(count("dropped")).isEqualTo(1);
+
+        buffer.flush();
+
+        verify(productService).updatePrices(eq(Map.of("FAL-1111111", new BigDecimal("10.00"))), any());
+
+    }
+
+    @Test
+    void shouldDropWaitingPriceOfProductWrittenWhole() {
+
+        PriceUpdateBuffer buffer = buffer(10, false);
+        buffer.updatePrice("FAL-1111111", new BigDecimal("10.00"));
+        buffer.updatePrice("FAL-1111112", new BigDecimal("5.00"));
+
+        buffer.settle(new ProductWriteEvent(List.of("FAL-1111111")));
+        buffer.flush();
+
+        verify(productService).updatePrices(eq(Map.of("FAL-1111112", new BigDecimal("5.00"))), any());
+        assertThat(count("superseded")).isEqualTo(1);
+
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldNotRetryDrainedPriceOfProductWrittenDuringFlush() {
+
+        PriceUpdateBuffer buffer = buffer(10, false);
+        when(productService.updatePrices(anyMap(), any())).thenAnswer(invocation -> {
+            buffer.settle(new ProductWriteEvent(List.of("FAL-1111111")));
+            Predicate<String> superseded = invocation.getArgument(1);
+            assertThat(superseded).accepts("FAL-1111111").rejects("FAL-1111112");
+            return List.of(result("FAL-1111111", ProductBatchResult.Status.FAILED),
+                    result("FAL-1111112", ProductBatchResult.Status.UPDATED));
+        });
+        buffer.updatePrice("FAL-1111111", new BigDecimal("10.00"));
+        buffer.updatePrice("FAL-1111112", new BigDecimal("5.00"));
+
+        buffer.flush();
+
+        assertThat(buffer.size()).isZero();
+        assertThat(count("superseded")).isEqualTo(1);
+        assertThat(count("stored")).isEqualTo(1);
+
+    }
+
+    @Test
+    void shouldNotReplayPriceOfProductWrittenWhole() throws IOException {
+
+        PriceUpdateBuffer crashed = buffer(10, true);
+        crashed.updatePrice("FAL-1111111", new BigDecimal("10.00"));
+        crashed.updatePrice("FAL-1111112", new BigDecimal("5.00"));
+        crashed.settle(new ProductWriteEvent(List.of("FAL-1111111")));
+
+        PriceUpdateBuffer restarted = buffer(10, true);
+        restarted.flush();
+
+        verify(productService).updatePrices(eq(Map.of("FAL-1111112", new BigDecimal("5.00"))), any());
+
+    }
+
+    @Test
+    void shouldNotQueuePriceTheJournalRefused() throws IOException {
+
+        PriceUpdateBuffer buffer = buffer(10, true);
+        buffer.shutdown();
+
+        assertThatThrownBy(() -> buffer.updatePrice("FAL-1111111", new BigDecimal("10.00")))
+                .isInstanceOf(UncheckedIOException.class);
+
+        assertThat(buffer.size()).isZero();
+        buffer.flush();
+        verify(productService, never()).updatePrices(anyMap(), any());
+
+    }
+
+    @Test
+    void shouldRestorePriceWhenWriteRollsBack() throws IOException {
+
+        PriceUpdateBuffer buffer = buffer(10, true);
+        buffer.updatePrice("FAL-1111111", new BigDecimal("10.00"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            buffer.settle(new ProductWriteEvent(List.of("FAL-1111111")));
+            assertThat(buffer.size()).isZero();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(buffer.size()).isEqualTo(1);
+
+        PriceUpdateBuffer restarted = buffer(10, true);
+        restarted.flush();
+
+        verify(productService).updatePrices(eq(Map.of("FAL-1111111", new BigDecimal("10.00"))), any());
+
+    }
+
+    @Test
+    void shouldReplayJournaledPricesAfterCrash() throws IOException {
+
+        PriceUpdateBuffer crashed = buffer(10, true);
+        crashed.updatePrice("FAL-1111111", new BigDecimal("10.00"));
+        crashed.updatePrice("FAL-1111112", new BigDecimal("5.00"));
+        crashed.updatePrice("FAL-1111111", new BigDecimal("11.00"));
+
+        PriceUpdateBuffer restarted = buffer(10, true);
+
+        assertThat(restarted.size()).isEqualTo(2);
+        verify(productService, never()).updatePrices(anyMap(), any());
+
+        restarted.flush();
+        restarted.shutdown();
+
+        verify(productService).updatePrices(eq(Map.of(
+                "FAL-1111111", new BigDecimal("11.00"),
+                "FAL-1111112", new BigDecimal("5.00"))), any());
+        assertThat(buffer(10, true).size()).isZero();
+
+    }
+
+    @Test
+    void shouldKeepJournalUntilPricesAreStored() throws IOException {
+
+        when(productService.updatePrices(anyMap(), any())).thenThrow(new IllegalStateException("database down"));
+        PriceUpdateBuffer buffer = buffer(10, true);
+        buffer.updatePrice("FAL-1111111", new BigDecimal("10.00"));
+
+        buffer.flush();
+
+        assertThat(buffer.size()).isEqualTo(1);
+        assertThat(buffer(10, true).size()).isEqualTo(1);
+
+    }
+
+    @Test
+    void shouldKeepOneOpenSegmentWhileFlushesFail() throws IOException {
+
+        when(productService.updatePrices(anyMap(), any())).thenThrow(new IllegalStateException("database down"));
+        PriceUpdateBuffer buffer = buffer(10, true);
+        for (int i = 0; i < 5; i++) {
+            buffer.updatePrice("FAL-1111111", new BigDecimal("1" + i + ".00"));
+            buffer.flush();
+        }
+
+        assertThat(segments()).containsExactly(
+                "prices-0000000000000000000.journal", "prices-0000000000000000001.journal");
+
+        Mockito.reset(productService);
+        when(productService.updatePrices(anyMap(), any())).thenAnswer(invocation -> results(invocation.getArgument(0),
+                ProductBatchResult.Status.UPDATED));
+        buffer.flush();
+        buffer.flush();
+
+        verify(productService).updatePrices(eq(Map.of("FAL-1111111", new BigDecimal("14.00"))), any());
+        assertThat(segments()).containsExactly("prices-0000000000000000002.journal");
+
+    }
+
+    @Test
+    void shouldSkipLineCutShortByCrash() throws IOException {
+
+        Files.write(journalPath.resolve("prices-0000000000000000007.journal"),
+                "FAL-1111111 10.00\nFAL-1111112 5.0".getBytes(StandardCharsets.US_ASCII));
+
+        PriceUpdateBuffer buffer = buffer(10, true);
+        buffer.flush();
+
+        verify(productService).updatePrices(eq(Map.of("FAL-1111111", new BigDecimal("10.00"))), any());
+        assertThat(segments()).containsExactly("prices-0000000000000000008.journal");
+
+    }
+
+    private PriceUpdateBuffer buffer(int capacity, boolean journal) {
+        try {
+            return new PriceUpdateBuffer(productService, capacity, journal, journalPath.toString(), true, meterRegistry);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<String> segments() throws IOException {
+        try (var files = Files.list(journalPath)) {
+            return files.map(path -> path.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("product.price.updates").tag("result", result).counter().count();
+    }
+
+    private static List<ProductBatchResult> results(Map<String, BigDecimal> prices, ProductBatchResult.Status status) {
+        return prices.keySet().stream().map(sku -> result(sku, status)).collect(Collectors.toList());
+    }
+
+    private static ProductBatchResult result(String sku, ProductBatchResult.Status status) {
+        return ProductBatchResult.builder().sku(sku).status(status).build();
+    }
+
+}
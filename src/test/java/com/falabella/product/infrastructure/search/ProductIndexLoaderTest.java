@@ -0,0 +1,43 @@
+package com.falabella.product.infrastructure.search;
+
+import com.falabella.product.domain.model.Product;
+import com.falabella.product.domain.model.ProductSearchQuery;
+import com.falabella.product.domain.port.ProductOperations;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class ProductIndexLoaderTest {
+
+    @Mock
+    private ProductOperations productOperations;
+
+    @Test
+    void shouldRebuildIndexFromExport() {
+
+        ProductIndex index = new ProductIndex();
+        index.index(Product.builder().sku("FAL-1111110").name("stale").build());
+
+        doAnswer(invocation -> {
+            Consumer<Product> consumer = invocation.getArgument(0);
+            consumer.accept(Product.builder().sku("FAL-1111111").name("some-name").build());
+            return null;
+        }).when(productOperations).exportProducts(any());
+
+        new ProductIndexLoader(productOperations, index).rebuild();
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search(ProductSearchQuery.builder().text("some").limit(10).build()).getSkus())
+                .containsExactly("FAL-1111111");
+
+    }
+
+}
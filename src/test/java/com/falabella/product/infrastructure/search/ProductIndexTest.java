@@ -0,0 +1,223 @@
+package com.falabella.product.infrastructure.search;
+
+import com.falabella.product.domain.model.Product;
+import com.falabella.product.domain.model.ProductSearchQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class ProductIndexTest {
+
+    private ProductIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductIndex();
+        index.index(buildProduct("FAL-1000001", "Running Shoe", "Nike", "42", "59.90"));
+        index.index(buildProduct("FAL-1000002", "Trail Running Shoe", "Adidas", "43", "89.90"));
+        index.index(buildProduct("FAL-1000003", "Running Shirt", "Nike", "M", "19.90"));
+        index.index(buildProduct("FAL-1000004", "Sandal", "Nike", "41", null));
+    }
+
+    @Test
+    void shouldMatchEveryWordAsPrefix() {
+
+        ProductIndex.Hits hits = index.search(query("run sho"));
+
+        assertThat(hits.getSkus()).containsExactly("FAL-1000001", "FAL-1000002");
+        assertThat(hits.getTotal()).isEqualTo(2);
+
+    }
+
+    @Test
+    void shouldMatchBrandAndSizeTerms() {
+
+        assertThat(index.search(query("adi")).getSkus()).containsExactly("FAL-1000002");
+        assertThat(index.search(query("M")).getSkus()).containsExactly("FAL-1000003");
+        assertThat(index.search(query("boot")).getTotal()).isZero();
+
+    }
+
+    @Test
+    void shouldCountBrandsBeforeBrandFilter() {
+
+        ProductSearchQuery query = query("running");
+        query.setBrand("nike");
+
+        ProductIndex.Hits hits = index.search(query);
+
+        assertThat(hits.getSkus()).containsExactly("FAL-1000001", "FAL-1000003");
+        assertThat(hits.getBrands()).containsExactly(entry("Nike", 2), entry("Adidas", 1));
+
+    }
+
+    @Test
+    void shouldFilterByPriceRange() {
+
+        ProductSearchQuery query = query(null);
+        query.setBrand("nike");
+        query.setMinPrice(new BigDecimal("19.90"));
+        query.setMaxPrice(new BigDecimal("59.90"));
+
+        ProductIndex.Hits hits = index.search(query);
+
+        assertThat(hits.getSkus()).containsExactly("FAL-1000001", "FAL-1000003");
+
+    }
+
+    @Test
+    void shouldLimitHitsButCountAll() {
+
+        ProductSearchQuery query = query("running");
+        query.setLimit(1);
+
+        ProductIndex.Hits hits = index.search(query);
+
+        assertThat(hits.getSkus()).containsExactly("FAL-1000001");
+        assertThat(hits.getTotal()).isEqualTo(3);
+
+    }
+
+    @Test
+    void shouldMatchBrandWithoutText() {
+
+        ProductSearchQuery query = query(null);
+        query.setBrand("NIKE");
+
+        ProductIndex.Hits hits = index.search(query);
+
+        assertThat(hits.getSkus()).containsExactly("FAL-1000001", "FAL-1000003", "FAL-1000004");
+        assertThat(hits.getBrands()).containsExactly(entry("Nike", 3));
+
+    }
+
+    @Test
+    void shouldMatchNothingWithoutTextOrBrand() {
+
+        assertThat(index.search(query(null)).getTotal()).isZero();
+        assertThat(index.search(query("!")).getSkus()).isEmpty();
+
+    }
+
+    @Test
+    void shouldMatchProductOnceWhenSeveralOfItsTermsSharePrefix() {
+
+        index.index(buildProduct("FAL-1000005", "Short Shoe", "Shimano", "S", "9.90"));
+
+        ProductIndex.Hits hits = index.search(query("sh"));
+
+        assertThat(hits.getSkus()).containsExactly("FAL-1000001", "FAL-1000002", "FAL-1000003", "FAL-1000005");
+        assertThat(index.search(query("sh sho run")).getSkus()).containsExactly("FAL-1000001", "FAL-1000002");
+
+    }
+
+    @Test
+    void shouldReindexUpdatedProduct() {
+
+        index.index(buildProduct("FAL-1000004", "Running Sandal", "Puma", "41", "29.90"));
+
+        assertThat(index.search(query("running")).getTotal()).isEqualTo(4);
+        assertThat(index.search(query("nike")).getTotal()).isEqualTo(2);
+        assertThat(index.search(query("puma")).getSkus()).containsExactly("FAL-1000004");
+        assertThat(index.size()).isEqualTo(4);
+
+    }
+
+    @Test
+    void shouldRemoveProduct() {
+
+        index.remove("FAL-1000001");
+        index.remove("FAL-1000009");
+
+        assertThat(index.search(query("shoe")).getSkus()).containsExactly("FAL-1000002");
+        assertThat(index.size()).isEqualTo(3);
+
+        index.clear();
+
+        assertThat(index.search(query("shoe")).getTotal()).isZero();
+
+    }
+
+    @Test
+    void shouldMatchNarrowPrefixInLargeCatalog() {
+
+        for (int i = 0; i < 1000; i++) {
+            index.index(buildProduct(String.format("FAL-%07d", i), "Boot " + i, "Puma", "42", "10.00"));
+        }
+        index.index(buildProduct("FAL-2000001", "Sandalwood Boot", "Puma", "42", "10.00"));
+
+        assertThat(index.search(query("sandal")).getSkus()).containsExactly("FAL-1000004", "FAL-2000001");
+        assertThat(index.search(query("sandal boo")).getSkus()).containsExactly("FAL-2000001");
+
+    }
+
+    @Test
+    void shouldFindProductsLeftAfterManyRemovals() {
+
+        index.clear();
+        for (int i = 0; i < 1000; i++) {
+            index.index(buildProduct(String.format("FAL-%07d", i), "Boot " + i, "Nike", "42", "10.00"));
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            index.remove(String.format("FAL-%07d", i));
+        }
+        for (int i = 1; i < 1000; i += 2) {
+            index.index(buildProduct(String.format("FAL-%07d", i), "Sandal " + i, "Nike", "42", "10.00"));
+        }
+
+        assertThat(index.size()).isEqualTo(500);
+        assertThat(index.search(query("boot")).getTotal()).isZero();
+        assertThat(index.search(query("sandal")).getTotal()).isEqualTo(500);
+        assertThat(index.search(query("sandal 99")).getTotal()).isEqualTo(6);
+
+    }
+
+    @Test
+    void shouldGiveIdOfRemovedProductToNextNewOne() {
+
+        index.remove("FAL-1000001");
+        index.index(buildProduct("FAL-1000005", "Running Boot", "Puma", "42", "99.90"));
+
+        // ids are handed out in order, the new product takes the first one back
+        assertThat(index.search(query("running")).getSkus()).containsExactly("FAL-1000005", "FAL-1000002", "FAL-1000003");
+        assertThat(index.size()).isEqualTo(4);
+
+    }
+
+    @Test
+    void shouldKeepCurrentIndexAndWritesDuringRebuild() {
+
+        index.rebuild(export -> {
+            export.accept(buildProduct("FAL-1000002", "Trail Running Shoe", "Adidas", "43", "89.90"));
+            assertThat(index.search(query("sandal")).getSkus()).containsExactly("FAL-1000004");
+            index.index(buildProduct("FAL-1000003", "Running Jacket", "Nike", "M", "49.90"));
+            index.remove("FAL-1000002");
+            export.accept(buildProduct("FAL-1000003", "Running Shirt", "Nike", "M", "19.90"));
+            export.accept(buildProduct("FAL-1000005", "Running Boot", "Puma", "42", "99.90"));
+        });
+
+        assertThat(index.search(query("running")).getSkus()).containsExactlyInAnyOrder("FAL-1000003", "FAL-1000005");
+        assertThat(index.search(query("jacket")).getSkus()).containsExactly("FAL-1000003");
+        assertThat(index.search(query("sandal")).getTotal()).isZero();
+        assertThat(index.size()).isEqualTo(2);
+
+    }
+
+    private ProductSearchQuery query(String text) {
+        return ProductSearchQuery.builder().text(text).limit(10).build();
+    }
+
+    private Product buildProduct(String sku, String name, String brand, String size, String price) {
+        return Product.builder()
+                .sku(sku)
+                .name(name)
+                .brand(brand)
+                .size(size)
+                .price(price == null ? null : new BigDecimal(price)).build();
+    }
+
+}
@@ -1,23 +1,59 @@
 package com.falabella.product.infrastructure.service;
 
+import com.falabella.product.domain.error.ProductConflictException;
 import com.falabella.product.domain.error.ProductNotFoundException;
 import com.falabella.product.domain.model.Product;
+import com.falabella.product.domain.model.ProductBatchResult;
+import com.falabella.product.domain.model.ProductChange;
+import com.falabella.product.domain.model.ProductChangePage;
+import com.falabella.product.domain.model.ProductChangeQuery;
+import com.falabella.product.domain.model.ProductEvent;
+import com.falabella.product.domain.model.ProductLookup;
+import com.falabella.product.domain.model.ProductPage;
+import com.falabella.product.domain.model.ProductQuery;
+import com.falabella.product.domain.model.ProductSearchQuery;
+import com.falabella.product.domain.model.ProductSearchResult;
+import com.falabella.product.domain.model.Sku;
 import com.falabella.product.infrastructure.adapter.ProductRepository;
+import com.falabella.product.infrastructure.adapter.ProductTombstoneRepository;
 import com.falabella.product.infrastructure.adapter.model.ProductEntity;
+import com.falabella.product.infrastructure.adapter.model.ProductSummary;
+import com.falabella.product.infrastructure.adapter.model.ProductTombstoneEntity;
+import com.falabella.product.infrastructure.cache.BatchLoader;
+import com.falabella.product.infrastructure.cache.SingleFlight;
+import com.falabella.product.infrastructure.outbox.ProductOutbox;
+import com.falabella.product.infrastructure.search.ProductIndex;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
 import java.math.BigDecimal;
-import java.util.Collections;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -27,9 +63,36 @@ class ProductServiceTest {
     @Mock
     private ProductRepository repository;
 
-    @InjectMocks
+    @Mock
+    private ProductTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ProductOutbox outbox;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private Cache<String, Optional<Product>> productCache;
+
+    private ProductIndex productIndex;
+
     private ProductService service;
 
+    @BeforeEach
+    void setUp() {
+        productCache = Caffeine.newBuilder().build();
+        productIndex = new ProductIndex();
+        service = new ProductService(repository, tombstoneRepository, entityManager, productCache,
+                new SingleFlight<>("product", new SimpleMeterRegistry()), Optional.empty(),
+                new TransactionTemplate(transactionManager), productIndex, outbox, eventPublisher, Duration.ofSeconds(5));
+    }
+
     @Test
     void shouldSaveProduct() {
 
@@ -39,22 +102,80 @@ class ProductServiceTest {
 
         Product product = service.saveProduct(buildProduct());
 
+        verify(eventPublisher).publishEvent(new ProductWriteEvent(List.of("FAL-1111111")));
         verify(repository).save(entity);
+        verify(outbox).record("FAL-1111111", ProductEvent.Type.CREATED, entity.getVersion());
 
         assertion(product, entity);
 
     }
 
+    @Test
+    void shouldSaveProducts() {
+
+        ProductEntity entity = buildProductEntity();
+        Product newProduct = buildProduct();
+        newProduct.setSku("FAL-1111112");
+
+        when(repository.findAllWithImagesBySkuKeyIn(anyList())).thenReturn(List.of(entity));
+
+        List<ProductBatchResult> results = service.saveProducts(List.of(buildProduct(), newProduct, newProduct));
+
+        verify(repository).findAllWithImagesBySkuKeyIn(skuKeys("FAL-1111111", "FAL-1111112", "FAL-1111112"));
+        verify(entityManager, times(1)).persist(any(ProductEntity.class));
+        verify(entityManager, times(2)).flush();
+        verify(outbox).record("FAL-1111111", ProductEvent.Type.UPDATED, entity.getVersion());
+        verify(outbox, times(2)).record(eq("FAL-1111112"), any(ProductEvent.Type.class), any());
+        verify(outbox).publish();
+        verify(eventPublisher).publishEvent(new ProductWriteEvent(List.of("FAL-1111111", "FAL-1111112", "FAL-1111112")));
+
+        assertThat(results).extracting(ProductBatchResult::getStatus).containsExactly(
+                ProductBatchResult.Status.UPDATED, ProductBatchResult.Status.CREATED, ProductBatchResult.Status.UPDATED);
+
+    }
+
+    @Test
+    void shouldHandleSaveProductsFailure() {
+
+        when(repository.findAllWithImagesBySkuKeyIn(anyList())).thenThrow(new IllegalStateException("connection lost"));
+
+        List<ProductBatchResult> results = service.saveProducts(List.of(buildProduct()));
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getStatus()).isEqualTo(ProductBatchResult.Status.FAILED);
+        assertThat(results.get(0).getDetails()).containsExactly("connection lost");
+        verifyNoInteractions(outbox);
+
+    }
+
+    @Test
+    void shouldSaveExistingProductInPlace() {
+
+        ProductEntity entity = buildProductEntity();
+        Product product = buildProduct();
+        product.setName("other-name");
+
+        when(repository.findBySkuKey(any(Sku.class))).thenReturn(Optional.of(entity));
+
+        Product saved = service.saveProduct(product);
+
+        verify(repository, never()).save(any(ProductEntity.class));
+        verify(entityManager).flush();
+
+        assertThat(saved.getName()).isEqualTo("other-name");
+
+    }
+
     @Test
     void shouldGetProductBySku() {
 
         ProductEntity entity = buildProductEntity();
 
-        when(repository.findById(anyString())).thenReturn(Optional.of(entity));
+        when(repository.findBySkuKey(any(Sku.class))).thenReturn(Optional.of(entity));
 
         Product product = service.getProductBySku("FAL-1111111");
 
-        verify(repository).findById("FAL-1111111");
+        verify(repository).findBySkuKey(Sku.parse("FAL-1111111"));
 
         assertion(product, entity);
 
@@ -63,57 +184,328 @@ class ProductServiceTest {
     @Test
     void shouldHandleGetProductBySkuNotFound() {
 
-        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        when(repository.findBySkuKey(any(Sku.class))).thenReturn(Optional.empty());
 
         ProductNotFoundException exception = assertThrows(ProductNotFoundException.class,
                 () -> service.getProductBySku("FAL-1111110"));
 
         assertThat(exception).hasMessage("Product not found sku FAL-1111110");
+        assertThat(exception.getStackTrace()).isEmpty();
 
     }
 
     @Test
-    void shouldUpdateProductBySku() {
+    void shouldGetProductBySkuFromCache() {
+
+        ProductEntity entity = buildProductEntity();
+
+        when(repository.findBySkuKey(any(Sku.class))).thenReturn(Optional.of(entity));
+
+        service.getProductBySku("FAL-1111111");
+        Product product = service.getProductBySku("FAL-1111111");
+
+        verify(repository, times(1)).findBySkuKey(Sku.parse("FAL-1111111"));
+
+        assertion(product, entity);
+
+    }
+
+    @Test
+    void shouldNotCacheProductReadBeforeConcurrentChange() {
+
+        ProductEntity entity = buildProductEntity();
+
+        when(repository.findBySkuKey(any(Sku.class))).thenAnswer(invocation -> {
+            // the product changes and commits while its previous state is being read
+            service.saveProducts(List.of(buildProduct()));
+            return Optional.of(entity);
+        });
+
+        Product product = service.getProductBySku("FAL-1111111");
+
+        assertion(product, entity);
+        assertThat(productCache.getIfPresent("FAL-1111111")).isNull();
+
+    }
+
+    @Test
+    void shouldGetProductBySkuThroughBatchLoader() {
+
+        ProductEntity entity = buildProductEntity();
+        List<List<String>> batches = new ArrayList<>();
+        BatchLoader<String, Product> batchLoader = new BatchLoader<>("product", skus -> {
+            batches.add(skus);
+            return Map.of(entity.getSku(), entity.toDomain());
+        }, 64, Duration.ofMillis(1), 1, 16, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        service = new ProductService(repository, tombstoneRepository, entityManager, productCache,
+                new SingleFlight<>("product", new SimpleMeterRegistry()), Optional.of(batchLoader),
+                new TransactionTemplate(transactionManager), productIndex, outbox, eventPublisher, Duration.ofSeconds(5));
+
+        try {
+            Product product = service.getProductBySku("FAL-1111111");
+
+            assertThrows(ProductNotFoundException.class, () -> service.getProductBySku("FAL-1111112"));
+            assertThrows(ProductNotFoundException.class, () -> service.getProductBySku("not-a-sku"));
+
+            assertion(product, entity);
+            assertThat(batches).containsExactly(List.of("FAL-1111111"), List.of("FAL-1111112"));
+            verify(repository, never()).findBySkuKey(any(Sku.class));
+        } finally {
+            batchLoader.close();
+        }
+
+    }
+
+    @Test
+    void shouldAwaitBatchOutsideTheCache() {
+
+        ProductEntity entity = buildProductEntity();
+        BatchLoader<String, Product> batchLoader = new BatchLoader<>("product", skus -> {
+            // another thread using the same cache entry does not wait for the batch
+            try {
+                CompletableFuture.runAsync(() -> productCache.put("FAL-1111111", Optional.empty())).get(1, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException("cache entry held during the batch", e);
+            }
+            return Map.of(entity.getSku(), entity.toDomain());
+        }, 64, Duration.ofMillis(1), 1, 16, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        service = new ProductService(repository, tombstoneRepository, entityManager, productCache,
+                new SingleFlight<>("product", new SimpleMeterRegistry()), Optional.of(batchLoader),
+                new TransactionTemplate(transactionManager), productIndex, outbox, eventPublisher, Duration.ofSeconds(5));
+
+        try {
+            Product product = service.getProductBySku("FAL-1111111");
+
+            assertion(product, entity);
+            assertThat(productCache.getIfPresent("FAL-1111111")).contains(product);
+        } finally {
+            batchLoader.close();
+        }
+
+    }
+
+    @Test
+    void shouldCacheProductNotFound() {
+
+        when(repository.findBySkuKey(any(Sku.class))).thenReturn(Optional.empty());
+
+        assertThrows(ProductNotFoundException.class, () -> service.getProductBySku("FAL-1111110"));
+        assertThrows(ProductNotFoundException.class, () -> service.getProductBySku("FAL-1111110"));
+        assertThrows(ProductNotFoundException.class, () -> service.deleteProductBySku("FAL-1111110"));
+
+        verify(repository, times(1)).findBySkuKey(Sku.parse("FAL-1111110"));
+
+    }
+
+    @Test
+    void shouldInvalidateCacheOnSave() {
 
         ProductEntity entity = buildProductEntity();
 
-        when(repository.findById(anyString())).thenReturn(Optional.of(entity));
+        when(repository.findBySkuKey(any(Sku.class))).thenReturn(Optional.empty());
         when(repository.save(any(ProductEntity.class))).thenReturn(entity);
 
-        Product product = service.updateProductBySku("FAL-1111111", buildProduct());
+        assertThrows(ProductNotFoundException.class, () -> service.getProductBySku("FAL-1111111"));
+        service.saveProduct(buildProduct());
 
-        verify(repository).findById("FAL-1111111");
-        verify(repository).save(entity);
+        assertThat(productCache.getIfPresent("FAL-1111111")).isNull();
+
+    }
+
+    @Test
+    void shouldInvalidateCacheOnUpdate() {
+
+        ProductEntity entity = buildProductEntity();
+
+        when(repository.findBySkuKey(any(Sku.class))).thenReturn(Optional.of(entity));
+
+        service.getProductBySku("FAL-1111111");
+        service.updateProductBySku("FAL-1111111", buildProduct());
+
+        assertThat(productCache.getIfPresent("FAL-1111111")).isNull();
+
+    }
+
+    @Test
+    void shouldGetProductsBySkus() {
+
+        ProductEntity entity = buildProductEntity();
+        ProductEntity cachedEntity = buildProductEntity();
+        cachedEntity.setSku("FAL-1111112");
+        productCache.put("FAL-1111112", Optional.of(cachedEntity.toDomain()));
+
+        when(repository.findAllWithImagesBySkuKeyIn(anyList())).thenReturn(List.of(entity));
+
+        ProductLookup lookup = service.getProductsBySkus(List.of("FAL-1111112", "FAL-1111111", "FAL-1111110", "FAL-1111111"));
+        ProductLookup cachedLookup = service.getProductsBySkus(List.of("FAL-1111110", "FAL-1111111"));
+
+        verify(repository, times(1)).findAllWithImagesBySkuKeyIn(skuKeys("FAL-1111111", "FAL-1111110"));
+
+        assertThat(lookup.getProducts()).extracting(Product::getSku).containsExactly("FAL-1111112", "FAL-1111111");
+        assertThat(lookup.getMissing()).containsExactly("FAL-1111110");
+        assertion(lookup.getProducts().get(1), entity);
+        assertThat(cachedLookup.getProducts()).extracting(Product::getSku).containsExactly("FAL-1111111");
+        assertThat(cachedLookup.getMissing()).containsExactly("FAL-1111110");
 
+    }
+
+    @Test
+    void shouldUpdateProductBySku() {
+
+        ProductEntity entity = buildProductEntity();
+
+        Product update = buildProduct();
+        update.setName("other-name");
+
+        when(repository.findBySkuKey(any(Sku.class))).thenReturn(Optional.of(entity));
+
+        Product product = service.updateProductBySku("FAL-1111111", update);
+
+        verify(repository).findBySkuKey(Sku.parse("FAL-1111111"));
+        verify(repository, never()).save(any(ProductEntity.class));
+        verify(entityManager).flush();
+        verify(outbox).record("FAL-1111111", ProductEvent.Type.UPDATED, entity.getVersion());
+
+        assertThat(entity.getName()).isEqualTo("other-name");
         assertion(product, entity);
 
     }
 
     @Test
-    void shouldGetAllProducts() {
+    void shouldHandleUpdateProductBySkuConflict() {
 
         ProductEntity entity = buildProductEntity();
+        entity.setVersion(2L);
+        Product update = buildProduct();
+        update.setVersion(1L);
 
-        when(repository.findAll()).thenReturn(List.of(entity));
+        when(repository.findBySkuKey(any(Sku.class))).thenReturn(Optional.of(entity));
 
-        List<Product> productList = service.getAllProducts();
+        ProductConflictException exception = assertThrows(ProductConflictException.class,
+                () -> service.updateProductBySku("FAL-1111111", update));
 
-        verify(repository).findAll();
+        assertThat(exception).hasMessage("Product sku FAL-1111111 was modified, current version 2");
+        verify(entityManager, never()).flush();
+        verify(eventPublisher, never()).publishEvent(any());
 
-        assertThat(productList).isNotEmpty();
-        assertion(productList.get(0), entity);
+    }
+
+    @Test
+    void shouldHandleDeleteProductBySkuConflict() {
+
+        ProductEntity entity = buildProductEntity();
+        entity.setVersion(2L);
+
+        when(repository.findBySkuKey(any(Sku.class))).thenReturn(Optional.of(entity));
+
+        assertThrows(ProductConflictException.class, () -> service.deleteProductBySku("FAL-1111111", 1L));
+
+        verify(repository, never()).delete(any(ProductEntity.class));
+        verify(eventPublisher, never()).publishEvent(any());
 
     }
 
     @Test
-    void shouldHandleGetAllProductsNotFound() {
+    void shouldHandleUpdateProductBySkuNotFound() {
 
-        when(repository.findAll()).thenReturn(Collections.emptyList());
+        when(repository.findBySkuKey(any(Sku.class))).thenReturn(Optional.empty());
 
-        ProductNotFoundException exception = assertThrows(ProductNotFoundException.class,
-                () -> service.getAllProducts());
+        assertThrows(ProductNotFoundException.class, () -> service.updateProductBySku("FAL-1111111", buildProduct()));
+
+        verify(eventPublisher, never()).publishEvent(any());
+
+    }
+
+    @Test
+    void shouldUpdateProductImagesInPlace() {
+
+        ProductEntity entity = buildProductEntity();
+        List<String> entityImages = new ArrayList<>(List.of("http://localhost/a", "http://localhost/b", "http://localhost/c"));
+        entity.setOtherImages(entityImages);
+        Product update = buildProduct();
+        update.setOtherImages(List.of("http://localhost/a", "http://localhost/x"));
+
+        when(repository.findBySkuKey(any(Sku.class))).thenReturn(Optional.of(entity));
+
+        Product product = service.updateProductBySku("FAL-1111111", update);
+
+        assertThat(entity.getOtherImages()).isSameAs(entityImages);
+        assertThat(entityImages).containsExactly("http://localhost/a", "http://localhost/x");
+        assertThat(product.getOtherImages()).containsExactly("http://localhost/a", "http://localhost/x");
+
+    }
+
+    @Test
+    void shouldGetProductsFirstPage() {
+
+        ProductEntity entity = buildProductEntity();
+        ProductEntity nextEntity = buildProductEntity();
+        nextEntity.setSku("FAL-1111112");
+
+        when(repository.findPage(any(ProductQuery.class), anyInt())).thenReturn(List.of(entity, nextEntity));
+
+        ProductPage page = service.getProducts(ProductQuery.builder().limit(1).build());
+
+        verify(repository).findPage(any(ProductQuery.class), eq(2));
+
+        assertThat(page.getProducts()).hasSize(1);
+        assertThat(page.getNext()).isEqualTo("FAL-1111111");
+        assertion(page.getProducts().get(0), entity);
+
+    }
+
+    @Test
+    void shouldGetProductsLastPage() {
+
+        ProductEntity entity = buildProductEntity();
+
+        ProductQuery query = ProductQuery.builder().after("FAL-1111110").limit(10).build();
+
+        when(repository.findPage(any(ProductQuery.class), anyInt())).thenReturn(List.of(entity));
+
+        ProductPage page = service.getProducts(query);
+
+        verify(repository).findPage(query, 11);
+
+        assertThat(page.getProducts()).hasSize(1);
+        assertThat(page.getNext()).isNull();
 
-        assertThat(exception).hasMessage("No registered products found");
+    }
+
+    @Test
+    void shouldGetProductsPageWithoutImages() {
+
+        ProductSummary summary = new ProductSummary("FAL-1111111", "some-name", "some-brand", "M",
+                new BigDecimal("1.00"), "http://localhost/image", 0L);
+
+        when(repository.findSummaryPage(any(ProductQuery.class), anyInt())).thenReturn(List.of(summary));
+
+        ProductPage page = service.getProducts(ProductQuery.builder().limit(10).withoutImages(true).build());
+
+        verify(repository, never()).findPage(any(ProductQuery.class), anyInt());
+
+        assertThat(page.getProducts()).hasSize(1);
+        assertThat(page.getProducts().get(0).getName()).isEqualTo("some-name");
+        assertThat(page.getProducts().get(0).getOtherImages()).isNull();
+        assertThat(page.getNext()).isNull();
+
+    }
+
+    @Test
+    void shouldExportProducts() {
+
+        ProductEntity entity = buildProductEntity();
+
+        when(repository.streamAllBy()).thenReturn(Stream.of(entity));
+
+        List<Product> productList = new ArrayList<>();
+        service.exportProducts(productList::add);
+
+        verify(repository).streamAllBy();
+        verify(entityManager).clear();
+
+        assertThat(productList).hasSize(1);
+        assertion(productList.get(0), entity);
 
     }
 
@@ -122,13 +514,81 @@ class ProductServiceTest {
 
         ProductEntity entity = buildProductEntity();
 
-        when(repository.findById(anyString())).thenReturn(Optional.of(entity));
+        when(repository.findBySkuKey(any(Sku.class))).thenReturn(Optional.of(entity));
         doNothing().when(repository).delete(entity);
 
+        service.getProductBySku("FAL-1111111");
         service.deleteProductBySku("FAL-1111111");
 
-        verify(repository).findById("FAL-1111111");
+        verify(repository, times(2)).findBySkuKey(Sku.parse("FAL-1111111"));
         verify(repository).delete(entity);
+        verify(outbox).record("FAL-1111111", ProductEvent.Type.DELETED, null);
+        verify(tombstoneRepository).save(argThat(tombstone -> tombstone.getSku().equals("FAL-1111111")));
+
+        assertThat(productCache.getIfPresent("FAL-1111111")).isNull();
+    }
+
+    @Test
+    void shouldMergeChangesAndDeletionsInOrder() {
+
+        Instant since = Instant.parse("2026-10-18T10:00:00Z");
+        ProductEntity updated = buildProductEntity();
+        updated.setUpdatedAt(since.plusSeconds(2));
+        ProductTombstoneEntity deleted = ProductTombstoneEntity.builder()
+                .sku("FAL-1111112")
+                .deletedAt(since.plusSeconds(1)).build();
+        ProductTombstoneEntity deletedLater = ProductTombstoneEntity.builder()
+                .sku("FAL-1111113")
+                .deletedAt(since.plusSeconds(3)).build();
+
+        when(repository.findChangedSince(eq(since), eq(""), any(Instant.class), any(Pageable.class))).thenReturn(List.of(updated));
+        when(tombstoneRepository.findDeletedSince(eq(since), eq(""), any(Instant.class), any(Pageable.class))).thenReturn(List.of(deleted, deletedLater));
+
+        ProductChangePage page = service.getChanges(ProductChangeQuery.builder().since(since).limit(2).build());
+
+        assertThat(page.getChanges()).extracting(ProductChange::getSku).containsExactly("FAL-1111112", "FAL-1111111");
+        assertThat(page.getChanges()).extracting(ProductChange::isDeleted).containsExactly(true, false);
+        assertThat(page.getSince()).isEqualTo(since.plusSeconds(2));
+        assertThat(page.getAfter()).isEqualTo("FAL-1111111");
+        assertThat(page.isMore()).isTrue();
+
+    }
+
+    @Test
+    void shouldSearchIndexedProducts() {
+
+        ProductEntity entity = buildProductEntity();
+
+        when(repository.save(any(ProductEntity.class))).thenReturn(entity);
+        when(repository.findAllWithImagesBySkuKeyIn(anyList())).thenReturn(List.of(entity));
+
+        service.saveProduct(buildProduct());
+        ProductSearchResult result = service.searchProducts(ProductSearchQuery.builder().text("some-na").limit(10).build());
+
+        verify(repository).findAllWithImagesBySkuKeyIn(skuKeys("FAL-1111111"));
+
+        assertThat(result.getTotal()).isEqualTo(1);
+        assertThat(result.getBrands()).containsEntry("some-brand", 1);
+        assertion(result.getProducts().get(0), entity);
+
+    }
+
+    @Test
+    void shouldRemoveDeletedProductFromIndex() {
+
+        ProductEntity entity = buildProductEntity();
+
+        when(repository.findBySkuKey(any(Sku.class))).thenReturn(Optional.of(entity));
+
+        productIndex.index(buildProduct());
+        service.deleteProductBySku("FAL-1111111");
+        ProductSearchResult result = service.searchProducts(ProductSearchQuery.builder().text("some").limit(10).build());
+
+        verify(repository, never()).findAllWithImagesBySkuKeyIn(anyList());
+
+        assertThat(result.getTotal()).isZero();
+        assertThat(result.getProducts()).isEmpty();
+
     }
 
     private ProductEntity buildProductEntity() {
@@ -142,6 +602,10 @@ class ProductServiceTest {
                 .otherImages(List.of("http://localhost/other-image")).build();
     }
 
+    private List<Sku> skuKeys(String... skus) {
+        return Stream.of(skus).map(Sku::parse).collect(Collectors.toList());
+    }
+
     private Product buildProduct() {
         return Product.builder()
                 .sku("FAL-1111111")
@@ -0,0 +1,133 @@
+package com.falabella.product.infrastructure.service;
+
+import com.falabella.product.domain.error.ProductNotFoundException;
+import com.falabella.product.domain.error.ProductReadOnlyException;
+import com.falabella.product.domain.error.ProductSearchDisabledException;
+import com.falabella.product.domain.model.Product;
+import com.falabella.product.domain.model.ProductLookup;
+import com.falabella.product.domain.model.ProductPage;
+import com.falabella.product.domain.model.ProductQuery;
+import com.falabella.product.domain.model.ProductSearchQuery;
+import com.falabella.product.domain.model.ProductSearchResult;
+import com.falabella.product.infrastructure.search.ProductIndex;
+import com.falabella.product.infrastructure.snapshot.ProductSnapshotStore;
+import com.falabella.product.infrastructure.snapshot.ProductSnapshotWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class SnapshotProductServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private ProductIndex productIndex;
+
+    private ProductSnapshotStore snapshotStore;
+
+    private SnapshotProductService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path path = directory.resolve("products.snapshot");
+        List<Product> products = IntStream.rangeClosed(1, 5)
+                .mapToObj(i -> buildProduct("FAL-100000" + i, "Running Shoe " + i))
+                .collect(Collectors.toList());
+        ProductSnapshotWriter.write(path, consumer -> products.forEach(consumer));
+        productIndex = new ProductIndex();
+        snapshotStore = new ProductSnapshotStore(path, mock(ApplicationEventPublisher.class));
+        service = new SnapshotProductService(snapshotStore, productIndex, true);
+    }
+
+    @Test
+    void shouldGetProductBySku() {
+
+        assertThat(service.getProductBySku("FAL-1000003").getName()).isEqualTo("Running Shoe 3");
+        assertThrows(ProductNotFoundException.class, () -> service.getProductBySku("FAL-1000009"));
+
+    }
+
+    @Test
+    void shouldGetProductsBySkusInRequestOrder() {
+
+        ProductLookup lookup = service.getProductsBySkus(List.of("FAL-1000004", "FAL-1000009", "FAL-1000001", "FAL-1000004"));
+
+        assertThat(lookup.getProducts()).extracting(Product::getSku).containsExactly("FAL-1000004", "FAL-1000001");
+        assertThat(lookup.getMissing()).containsExactly("FAL-1000009");
+
+    }
+
+    @Test
+    void shouldPageProducts() {
+
+        ProductPage page = service.getProducts(ProductQuery.builder().after("FAL-1000001").limit(2).build());
+
+        assertThat(page.getProducts()).extracting(Product::getSku).containsExactly("FAL-1000002", "FAL-1000003");
+        assertThat(page.getNext()).isEqualTo("FAL-1000003");
+        assertThat(service.getProducts(ProductQuery.builder().after("FAL-1000003").limit(2).build()).getNext()).isNull();
+
+    }
+
+    @Test
+    void shouldSearchIndexedSnapshot() {
+
+        service.rebuildIndex();
+        ProductSearchQuery query = ProductSearchQuery.builder().text("shoe").limit(2).build();
+
+        ProductSearchResult result = service.searchProducts(query);
+
+        assertThat(result.getProducts()).extracting(Product::getSku).containsExactly("FAL-1000001", "FAL-1000002");
+        assertThat(result.getTotal()).isEqualTo(5);
+
+    }
+
+    @Test
+    void shouldNotIndexUnlessSearchIsEnabled() {
+
+        SnapshotProductService withoutSearch = new SnapshotProductService(snapshotStore, productIndex, false);
+
+        withoutSearch.rebuildIndex();
+
+        assertThat(productIndex.size()).isZero();
+        assertThrows(ProductSearchDisabledException.class,
+                () -> withoutSearch.searchProducts(ProductSearchQuery.builder().text("shoe").limit(2).build()));
+
+    }
+
+    @Test
+    void shouldRejectWrites() {
+
+        Product product = buildProduct("FAL-1000001", "Sandal");
+
+        assertThrows(ProductReadOnlyException.class, () -> service.saveProduct(product));
+        assertThrows(ProductReadOnlyException.class, () -> service.saveProducts(new ArrayList<>(List.of(product))));
+        assertThrows(ProductReadOnlyException.class, () -> service.updateProductBySku("FAL-1000001", product));
+        assertThrows(ProductReadOnlyException.class, () -> service.deleteProductBySku("FAL-1000001"));
+        assertThrows(ProductReadOnlyException.class, () -> service.deleteProductBySku("FAL-1000001", 0L));
+
+    }
+
+    private Product buildProduct(String sku, String name) {
+        return Product.builder()
+                .sku(sku)
+                .name(name)
+                .brand("Nike")
+                .size("42")
+                .price(new BigDecimal("59.90"))
+                .principalImage("https://falabella.scene7.com/image/1").build();
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.falabella.product.infrastructure.snapshot;
+
+import com.falabella.product.domain.model.Product;
+import com.falabella.product.domain.model.ProductQuery;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ProductSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadBackEveryField() throws IOException {
+
+        Product product = buildProduct("FAL-1000001", "Zapatilla Niño", "Nike", "59.90");
+        product.setOtherImages(List.of("https://falabella.scene7.com/image/2", "https://falabella.scene7.com/image/3"));
+        product.setVersion(3L);
+        Product sparse = buildProduct("FAL-1000002", "Sandal", "Nike", null);
+        sparse.setSize(null);
+
+        ProductSnapshot snapshot = write(List.of(product, sparse));
+
+        assertThat(snapshot.size()).isEqualTo(2);
+        assertThat(snapshot.get("FAL-1000001")).isEqualTo(product);
+        assertThat(snapshot.get("FAL-1000002")).isEqualTo(sparse);
+
+    }
+
+    @Test
+    void shouldMissUnknownSkus() throws IOException {
+
+        ProductSnapshot snapshot = write(products(1000));
+
+        assertThat(snapshot.get("FAL-1000500").getName()).isEqualTo("Product 500");
+        assertThat(snapshot.contains("FAL-2000000")).isFalse();
+        assertThat(snapshot.get("FAL-100050")).isNull();
+        assertThat(ProductSnapshot.empty().get("FAL-1000500")).isNull();
+
+    }
+
+    @Test
+    void shouldPageInSkuOrderWithFilters() throws IOException {
+
+        List<Product> products = products(10);
+        products.add(0, buildProduct("FAL-1000099", "Sandal", "Adidas", "5.00"));
+        ProductSnapshot snapshot = write(products);
+
+        ProductQuery query = ProductQuery.builder().after("FAL-1000003").build();
+        assertThat(skus(snapshot.page(query, 3))).containsExactly("FAL-1000004", "FAL-1000005", "FAL-1000006");
+
+        query = ProductQuery.builder().after("FAL-1000008").brand("Nike").build();
+        assertThat(skus(snapshot.page(query, 5))).containsExactly("FAL-1000009", "FAL-1000010");
+
+        query = ProductQuery.builder().minPrice(new BigDecimal("4.00")).maxPrice(new BigDecimal("6.00")).build();
+        assertThat(skus(snapshot.page(query, 5))).containsExactly("FAL-1000004", "FAL-1000005", "FAL-1000006", "FAL-1000099");
+
+    }
+
+    @Test
+    void shouldRejectOtherFiles() throws IOException {
+
+        Path path = Files.write(directory.resolve("products.snapshot"), new byte[64]);
+
+        assertThatThrownBy(() -> ProductSnapshot.open(path)).isInstanceOf(IOException.class);
+
+    }
+
+    @Test
+    void shouldRejectOffsetsPastTwoGigabytes() throws IOException {
+
+        assertThat(ProductSnapshotWriter.offset(Integer.MAX_VALUE)).isEqualTo(Integer.MAX_VALUE);
+        assertThatThrownBy(() -> ProductSnapshotWriter.offset(Integer.MAX_VALUE + 1L))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Product snapshot exceeds 2 GB");
+
+    }
+
+    @Test
+    void shouldSwapSnapshotWhenFileChanges() throws IOException {
+
+        Path path = directory.resolve("products.snapshot");
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        ProductSnapshotStore store = new ProductSnapshotStore(path, eventPublisher);
+        assertThat(store.current().size()).isZero();
+
+        ProductSnapshotWriter.write(path, consumer -> products(10).forEach(consumer));
+        store.refresh();
+        ProductSnapshot first = store.current();
+
+        store.refresh();
+        ProductSnapshotWriter.write(path, consumer -> products(20).forEach(consumer));
+        Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+        store.refresh();
+
+        assertThat(first.size()).isEqualTo(10);
+        assertThat(first.get("FAL-1000005").getName()).isEqualTo("Product 5");
+        assertThat(store.current().size()).isEqualTo(20);
+        verify(eventPublisher, times(2)).publishEvent(any(ProductSnapshotRefreshedEvent.class));
+
+    }
+
+    @Test
+    void shouldKeepServingWhenFileIsMissing() {
+
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        ProductSnapshotStore store = new ProductSnapshotStore(directory.resolve("missing.snapshot"), eventPublisher);
+        store.refresh();
+
+        assertThat(store.current().size()).isZero();
+        verify(eventPublisher, never()).publishEvent(any());
+
+    }
+
+    private ProductSnapshot write(List<Product> products) throws IOException {
+        Path path = directory.resolve("products.snapshot");
+        assertThat(ProductSnapshotWriter.write(path, consumer -> products.forEach(consumer))).isEqualTo(products.size());
+        return ProductSnapshot.open(path);
+    }
+
+    private List<Product> products(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> buildProduct(String.format("FAL-%07d", 1000000 + i), "Product " + i, "Nike", i + ".00"))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private List<String> skus(List<Product> products) {
+        return products.stream().map(Product::getSku).collect(Collectors.toList());
+    }
+
+    private Product buildProduct(String sku, String name, String brand, String price) {
+        return Product.builder()
+                .sku(sku)
+                .name(name)
+                .brand(brand)
+                .size("42")
+                .price(price == null ? null : new BigDecimal(price))
+                .principalImage("https://falabella.scene7.com/image/1").build();
+    }
+
+}
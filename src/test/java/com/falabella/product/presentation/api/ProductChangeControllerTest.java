@@ -0,0 +1,112 @@
+package com.falabella.product.presentation.api;
+
+import com.falabella.product.domain.model.Product;
+import com.falabella.product.domain.model.ProductChange;
+import com.falabella.product.domain.model.ProductChangePage;
+import com.falabella.product.domain.model.ProductChangeQuery;
+import com.falabella.product.domain.port.ProductChangeOperations;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(controllers = {ProductChangeController.class})
+class ProductChangeControllerTest {
+
+    private static final Instant SINCE = Instant.parse("2026-10-18T10:15:30Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductChangeOperations changeOperations;
+
+    @Test
+    void shouldGetChangesSince() throws Exception {
+
+        when(changeOperations.getChanges(any(ProductChangeQuery.class))).thenReturn(ProductChangePage.builder()
+                .changes(List.of(
+                        ProductChange.builder().sku("FAL-1111112").changedAt(SINCE.plusSeconds(1)).build(),
+                        ProductChange.builder().sku("FAL-1111111").changedAt(SINCE.plusSeconds(2)).product(buildProduct()).build()))
+                .since(SINCE.plusSeconds(2))
+                .after("FAL-1111111")
+                .more(true).build());
+
+        String cursor = ProductCursor.encodeChange(SINCE.plusSeconds(2), "FAL-1111111");
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products/changes?since=2026-10-18T10:15:30Z&limit=2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andExpect(jsonPath("$.data[0].sku").value("FAL-1111112"))
+                .andExpect(jsonPath("$.data[0].deleted").value(true))
+                .andExpect(jsonPath("$.data[0].product").doesNotExist())
+                .andExpect(jsonPath("$.data[1].changed_at").value("2026-10-18T10:15:32Z"))
+                .andExpect(jsonPath("$.data[1].deleted").value(false))
+                .andExpect(jsonPath("$.data[1].product.name").value("some-name"))
+                .andExpect(jsonPath("$.cursor").value(cursor))
+                .andExpect(jsonPath("$._links.next.href").value("http://localhost/api/v1/products/changes?cursor=" + cursor + "&limit=2"));
+
+        verify(changeOperations).getChanges(ProductChangeQuery.builder().since(SINCE).limit(2).build());
+
+    }
+
+    @Test
+    void shouldResumeFromCursor() throws Exception {
+
+        when(changeOperations.getChanges(any(ProductChangeQuery.class))).thenReturn(ProductChangePage.builder()
+                .changes(List.of())
+                .since(SINCE)
+                .after("FAL-1111111").build());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products/changes?cursor=" + ProductCursor.encodeChange(SINCE, "FAL-1111111"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").isEmpty())
+                .andExpect(jsonPath("$._links.next").doesNotExist());
+
+        verify(changeOperations).getChanges(ProductChangeQuery.builder().since(SINCE).after("FAL-1111111").limit(100).build());
+
+    }
+
+    @Test
+    void shouldRejectInvalidCursor() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products/changes?cursor=bm90LWEtY3Vyc29y")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+    }
+
+    private Product buildProduct() {
+        return Product.builder()
+                .sku("FAL-1111111")
+                .name("some-name")
+                .brand("some-brand")
+                .size("M")
+                .price(new BigDecimal("1.00"))
+                .principalImage("http://localhost/image")
+                .otherImages(List.of("http://localhost/other-image")).build();
+    }
+
+}
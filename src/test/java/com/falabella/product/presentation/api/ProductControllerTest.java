@@ -1,7 +1,16 @@
 package com.falabella.product.presentation.api;
 
+import com.falabella.product.domain.error.ProductConflictException;
 import com.falabella.product.domain.error.ProductNotFoundException;
+import com.falabella.product.domain.error.ProductReadOnlyException;
+import com.falabella.product.domain.error.ProductSearchDisabledException;
 import com.falabella.product.domain.model.Product;
+import com.falabella.product.domain.model.ProductBatchResult;
+import com.falabella.product.domain.model.ProductLookup;
+import com.falabella.product.domain.model.ProductPage;
+import com.falabella.product.domain.model.ProductQuery;
+import com.falabella.product.domain.model.ProductSearchQuery;
+import com.falabella.product.domain.model.ProductSearchResult;
 import com.falabella.product.domain.port.ProductOperations;
 import com.falabella.product.presentation.api.model.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -11,26 +20,48 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(controllers = {ProductController.class})
 class ProductControllerTest {
 
+    private static final Instant LAST_MODIFIED = Instant.parse("2026-10-18T10:15:30.250Z");
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -69,6 +100,56 @@ class ProductControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void shouldSaveProducts() throws Exception {
+
+        when(productOperations.saveProducts(anyList())).thenReturn(List.of(ProductBatchResult.builder()
+                .sku("FAL-1111111")
+                .status(ProductBatchResult.Status.CREATED).build()));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .post("/api/v1/products/batch")
+                        .content(asJsonString(List.of(buildBadRequest(), buildRequest())))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].sku").value("FAL11111110"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].status").value("INVALID"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].details").isNotEmpty())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].sku").value("FAL-1111111"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].status").value("CREATED"));
+
+    }
+
+    @Test
+    void shouldSaveProductsStream() throws Exception {
+
+        when(productOperations.saveProducts(anyList())).thenReturn(List.of(ProductBatchResult.builder()
+                .sku("FAL-1111111")
+                .status(ProductBatchResult.Status.UPDATED).build()));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .post("/api/v1/products/batch")
+                        .content(asJsonString(buildRequest()) + "\n")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].sku").value("FAL-1111111"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].status").value("UPDATED"));
+
+    }
+
+    @Test
+    void shouldSaveProductsStreamBadRequest() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .post("/api/v1/products/batch")
+                        .content("{\"sku\": ")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldGetProductBySku() throws Exception {
 
@@ -88,6 +169,40 @@ class ProductControllerTest {
 
     }
 
+    @Test
+    void shouldGetProductBySkuWithETag() throws Exception {
+
+        Product product = buildProduct();
+        product.setVersion(3L);
+        when(productOperations.getProductBySku(anyString())).thenReturn(product);
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/product/FAL-1111111")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data.sku").exists());
+
+    }
+
+    @Test
+    void shouldGetProductBySkuNotModified() throws Exception {
+
+        Product product = buildProduct();
+        product.setVersion(3L);
+        when(productOperations.getProductBySku(anyString())).thenReturn(product);
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/product/FAL-1111111")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"2\", \"3\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+
+    }
+
     @Test
     void shouldGetProductBySkuNotFound() throws Exception {
 
@@ -121,21 +236,381 @@ class ProductControllerTest {
     }
 
     @Test
-    void shouldGetAllProducts() throws Exception {
+    void shouldUpdateProductPreconditionFailed() throws Exception {
+
+        when(productOperations.updateProductBySku(anyString(), any(Product.class)))
+                .thenThrow(new ProductConflictException("Product sku FAL-1111111 was modified, current version 2"));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .put("/api/v1/product/FAL-1111111")
+                        .header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .content(asJsonString(buildUpdateRequest()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(productOperations).updateProductBySku(eq("FAL-1111111"), argThat(product -> product.getVersion() == 1L));
+    }
+
+    @Test
+    void shouldGetFirstPageWithoutLimit() throws Exception {
 
-        when(productOperations.getAllProducts()).thenReturn(List.of(buildProduct()));
+        when(productOperations.getProducts(any(ProductQuery.class))).thenReturn(ProductPage.builder()
+                .products(List.of(buildProduct())).build());
 
         mockMvc.perform(MockMvcRequestBuilders
                         .get("/api/v1/products")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(MockMvcResultMatchers.jsonPath("$.[0].data.sku").exists())
-                .andExpect(MockMvcResultMatchers.jsonPath("$.[0].data.name").exists())
-                .andExpect(MockMvcResultMatchers.jsonPath("$.[0].data.brand").exists())
-                .andExpect(MockMvcResultMatchers.jsonPath("$.[0].data.size").exists())
-                .andExpect(MockMvcResultMatchers.jsonPath("$.[0].data.price").exists())
-                .andExpect(MockMvcResultMatchers.jsonPath("$.[0].data.principal_image").exists())
-                .andExpect(MockMvcResultMatchers.jsonPath("$.[0].data.other_images").exists());
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data[0].data.sku").value("FAL-1111111"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$._links.self.href").value("http://localhost/api/v1/products?limit=20"));
+
+        verify(productOperations).getProducts(argThat(query -> query.getAfter() == null && query.getLimit() == 20));
+
+    }
+
+    @Test
+    void shouldRejectSearchWithoutTextOrBrand() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products/search")
+                        .param("min_price", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.details[0]").value("Search needs q or brand"));
+
+        verify(productOperations, never()).searchProducts(any(ProductSearchQuery.class));
+
+    }
+
+    @Test
+    void shouldRejectLookupOfTooManySkus() throws Exception {
+
+        String[] skus = IntStream.range(0, 201).mapToObj(i -> String.format("FAL-%07d", i)).toArray(String[]::new);
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products")
+                        .param("sku", skus)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.details[0]")
+                        .value("At most 200 skus can be looked up at once, got 201"));
+
+        verify(productOperations, never()).getProductsBySkus(anyList());
+
+    }
+
+    @Test
+    void shouldRejectLookupBySkusWithLimit() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products")
+                        .param("sku", "FAL-1111111")
+                        .param("limit", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(productOperations, never()).getProductsBySkus(anyList());
+        verify(productOperations, never()).getProducts(any(ProductQuery.class));
+
+    }
+
+    @Test
+    void shouldGetProductsBySkus() throws Exception {
+
+        when(productOperations.getProductsBySkus(anyList())).thenReturn(ProductLookup.builder()
+                .products(List.of(buildProduct()))
+                .missing(List.of("FAL-1111110")).build());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products")
+                        .param("sku", "FAL-1111111", "FAL-1111110")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data[0].data.sku").value("FAL-1111111"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data[0]._links.self.href").value("http://localhost/api/v1/product/FAL-1111111"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data[0]._links.product.href").value("http://localhost/api/v1/product/FAL-1111111"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.missing[0]").value("FAL-1111110"));
+
+    }
+
+    @Test
+    void shouldSearchProducts() throws Exception {
+
+        when(productOperations.searchProducts(any(ProductSearchQuery.class))).thenReturn(ProductSearchResult.builder()
+                .products(List.of(buildProduct()))
+                .total(1)
+                .brands(Map.of("some-brand", 1)).build());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products/search")
+                        .param("q", "some")
+                        .param("brand", "some-brand")
+                        .param("min_price", "0.50")
+                        .param("max_price", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data[0].data.sku").value("FAL-1111111"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.brands.some-brand").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$._links.self.href").exists());
+
+        verify(productOperations).searchProducts(argThat(query -> "some".equals(query.getText())
+                && "some-brand".equals(query.getBrand())
+                && new BigDecimal("0.50").equals(query.getMinPrice())
+                && new BigDecimal("2").equals(query.getMaxPrice())
+                && query.getLimit() == 20));
+
+    }
+
+    @Test
+    void shouldGetProductsPage() throws Exception {
+
+        when(productOperations.getProducts(any(ProductQuery.class))).thenReturn(ProductPage.builder()
+                .products(List.of(buildProduct()))
+                .next("FAL-1111111").build());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products")
+                        .param("limit", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data[0].data.sku").value("FAL-1111111"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$._links.self.href").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$._links.next.href").value("http://localhost/api/v1/products?limit=1&after=RkFMLTExMTExMTE"));
+
+    }
+
+    @Test
+    void shouldSendCacheHeadersOnProductsPage() throws Exception {
+
+        when(productOperations.getLastModified()).thenReturn(LAST_MODIFIED);
+        when(productOperations.getProducts(any(ProductQuery.class))).thenReturn(ProductPage.builder()
+                .products(List.of(buildProduct())).build());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products")
+                        .param("limit", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=30, stale-while-revalidate=30"))
+                .andExpect(header().string(HttpHeaders.LAST_MODIFIED, "Sun, 18 Oct 2026 10:15:31 GMT"));
+
+    }
+
+    @Test
+    void shouldGetProductsPageNotModifiedSince() throws Exception {
+
+        when(productOperations.getLastModified()).thenReturn(LAST_MODIFIED);
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products")
+                        .param("limit", "1")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Sun, 18 Oct 2026 10:15:31 GMT")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=30, stale-while-revalidate=30"));
+
+        verify(productOperations, never()).getProducts(any(ProductQuery.class));
+
+        when(productOperations.searchProducts(any(ProductSearchQuery.class))).thenReturn(ProductSearchResult.builder()
+                .products(List.of(buildProduct()))
+                .total(1)
+                .brands(Map.of("some-brand", 1)).build());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products/search")
+                        .param("q", "shoe")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Sun, 18 Oct 2026 10:15:30 GMT")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=10"));
+
+    }
+
+    @Test
+    void shouldSendLastModifiedOfTheProduct() throws Exception {
+
+        Product product = buildProduct();
+        product.setUpdatedAt(LAST_MODIFIED);
+        when(productOperations.getProductBySku(anyString())).thenReturn(product);
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/product/FAL-1111111")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LAST_MODIFIED, "Sun, 18 Oct 2026 10:15:31 GMT"));
+
+        verify(productOperations, never()).getLastModified();
+
+    }
+
+    @Test
+    void shouldRoundLastModifiedUpOnceItsSecondIsOver() {
+
+        assertThat(ProductCacheHeaders.httpDate(LAST_MODIFIED, LAST_MODIFIED.plusMillis(100)))
+                .isEqualTo(Instant.parse("2026-10-18T10:15:30Z"));
+        assertThat(ProductCacheHeaders.httpDate(LAST_MODIFIED, LAST_MODIFIED.plusMillis(750)))
+                .isEqualTo(Instant.parse("2026-10-18T10:15:31Z"));
+
+    }
+
+    @Test
+    void shouldPreferIfNoneMatchOverIfModifiedSince() throws Exception {
+
+        Product product = buildProduct();
+        product.setVersion(42L);
+        when(productOperations.getLastModified()).thenReturn(LAST_MODIFIED);
+        when(productOperations.getProductBySku(anyString())).thenReturn(product);
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/product/FAL-1111111")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"41\"")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Sun, 18 Oct 2026 10:15:31 GMT")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=60, stale-while-revalidate=30"));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/product/FAL-1111111")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Sun, 18 Oct 2026 10:15:31 GMT")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+    }
+
+    @Test
+    void shouldGetProductsPageByBrandAndPrice() throws Exception {
+
+        when(productOperations.getProducts(any(ProductQuery.class))).thenReturn(ProductPage.builder()
+                .products(List.of(buildProduct()))
+                .next("FAL-1111111").build());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products")
+                        .param("limit", "1")
+                        .param("brand", "some-brand")
+                        .param("min_price", "0.50")
+                        .param("max_price", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data[0].data.sku").value("FAL-1111111"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$._links.next.href")
+                        .value("http://localhost/api/v1/products?limit=1&after=RkFMLTExMTExMTE&brand=some-brand&min_price=0.50&max_price=2"));
+
+        verify(productOperations).getProducts(argThat(query -> "some-brand".equals(query.getBrand())
+                && new BigDecimal("0.50").equals(query.getMinPrice())
+                && new BigDecimal("2").equals(query.getMaxPrice())));
+
+    }
+
+    @Test
+    void shouldGetProductsLastPage() throws Exception {
+
+        when(productOperations.getProducts(any(ProductQuery.class))).thenReturn(ProductPage.builder()
+                .products(List.of(buildProduct())).build());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products")
+                        .param("limit", "1")
+                        .param("after", "RkFMLTExMTExMTA")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data[0].data.sku").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$._links.next").doesNotExist());
+
+    }
+
+    @Test
+    void shouldProductsInvalidCursor() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products")
+                        .param("limit", "1")
+                        .param("after", "%%%")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldGetProductsPageWithSparseFields() throws Exception {
+
+        Product product = buildProduct();
+        product.setOtherImages(null);
+        when(productOperations.getProducts(any(ProductQuery.class))).thenReturn(ProductPage.builder()
+                .products(List.of(product)).build());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products")
+                        .param("limit", "1")
+                        .param("fields", "name,price,principal_image")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data[0].data.sku").value("FAL-1111111"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data[0].data.name").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data[0].data.price").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data[0].data.principal_image").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data[0].data.brand").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data[0].data.other_images").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data[0]._links.self.href").exists());
+
+        verify(productOperations).getProducts(argThat(query -> query.isWithoutImages()
+                && Set.of("sku", "name", "price", "principalImage").equals(query.getFields())));
+
+    }
+
+    @Test
+    void shouldGetProductBySkuWithSparseFields() throws Exception {
+
+        when(productOperations.getProductBySku(anyString())).thenReturn(buildProduct());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/product/FAL-1111111")
+                        .param("fields", "other_images")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data.sku").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data.other_images").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data.name").doesNotExist());
+
+    }
+
+    @Test
+    void shouldProductsUnknownField() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products")
+                        .param("sku", "FAL-1111111")
+                        .param("fields", "name,color")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.details[0]").value(startsWith("Unknown field color")));
+
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldExportProducts() throws Exception {
+
+        doAnswer(invocation -> {
+            Consumer<Product> consumer = invocation.getArgument(0);
+            consumer.accept(buildProduct());
+            consumer.accept(buildProduct());
+            return null;
+        }).when(productOperations).exportProducts(any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products/export")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String line = asJsonString(DataResponse.of(buildProduct()));
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line + "\n" + line + "\n"));
 
     }
 
@@ -152,6 +627,54 @@ class ProductControllerTest {
 
     }
 
+    @Test
+    void shouldRejectDeleteOnReplica() throws Exception {
+
+        doThrow(new ProductReadOnlyException("Products are read only on a replica"))
+                .when(productOperations).deleteProductBySku("FAL-1111111", null);
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .delete("/api/v1/product/FAL-1111111")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isMethodNotAllowed());
+
+    }
+
+    @Test
+    void shouldAnswerNotImplementedWhenSearchIsDisabled() throws Exception {
+
+        when(productOperations.searchProducts(any(ProductSearchQuery.class)))
+                .thenThrow(new ProductSearchDisabledException("Search is not enabled on this replica"));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products/search")
+                        .param("q", "shoe")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotImplemented());
+
+    }
+
+    @Test
+    void shouldDeleteProductBySkuIfMatch() throws Exception {
+
+        doThrow(new ProductConflictException("Product sku FAL-1111111 was modified, current version 2"))
+                .when(productOperations).deleteProductBySku("FAL-1111111", -1L);
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .delete("/api/v1/product/FAL-1111111")
+                        .header(HttpHeaders.IF_MATCH, "W/\"2\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .delete("/api/v1/product/FAL-1111111")
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNoContent());
+
+        verify(productOperations).deleteProductBySku("FAL-1111111", 2L);
+    }
+
     private ProductRequest buildRequest() {
         ProductRequest request = new ProductRequest();
         request.setSku("FAL-1111111");
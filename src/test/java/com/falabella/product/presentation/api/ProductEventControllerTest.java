@@ -0,0 +1,96 @@
+package com.falabella.product.presentation.api;
+
+import com.falabella.product.domain.model.ProductEvent;
+import com.falabella.product.domain.model.ProductEventPage;
+import com.falabella.product.domain.port.ProductEventOperations;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(controllers = {ProductEventController.class})
+class ProductEventControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductEventOperations eventOperations;
+
+    @Test
+    void shouldGetEventsAfterSequence() throws Exception {
+
+        ProductEvent event = ProductEvent.builder()
+                .sequence(8L)
+                .sku("FAL-1111111")
+                .type(ProductEvent.Type.UPDATED)
+                .version(3L)
+                .createdAt(Instant.parse("2026-10-18T10:15:30Z")).build();
+
+        when(eventOperations.awaitEvents(7L, 100, Duration.ofSeconds(20))).thenReturn(CompletableFuture.completedFuture(
+                ProductEventPage.builder().events(List.of(event)).next(8L).build()));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products/events?after=7&wait=20")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andExpect(jsonPath("$.data[0].sequence").value(8))
+                .andExpect(jsonPath("$.data[0].sku").value("FAL-1111111"))
+                .andExpect(jsonPath("$.data[0].type").value("UPDATED"))
+                .andExpect(jsonPath("$.data[0].version").value(3))
+                .andExpect(jsonPath("$.data[0].created_at").value("2026-10-18T10:15:30Z"))
+                .andExpect(jsonPath("$.next").value(8))
+                .andExpect(jsonPath("$._links.next.href").value("http://localhost/api/v1/products/events?after=8&limit=100&wait=20"));
+
+    }
+
+    @Test
+    void shouldCapTheWait() throws Exception {
+
+        when(eventOperations.awaitEvents(anyLong(), anyInt(), eq(Duration.ofSeconds(ProductEventController.MAX_WAIT_SECONDS))))
+                .thenReturn(CompletableFuture.completedFuture(ProductEventPage.builder().events(List.of()).next(0L).build()));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/products/events?wait=600")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").isEmpty())
+                .andExpect(jsonPath("$.next").value(0));
+
+        verify(eventOperations).awaitEvents(0L, 100, Duration.ofSeconds(ProductEventController.MAX_WAIT_SECONDS));
+
+    }
+
+}
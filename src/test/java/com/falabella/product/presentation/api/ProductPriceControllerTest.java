@@ -0,0 +1,80 @@
+package com.falabella.product.presentation.api;
+
+import com.falabella.product.domain.error.ProductBackpressureException;
+import com.falabella.product.domain.port.ProductPriceOperations;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.math.BigDecimal;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(controllers = {ProductPriceController.class}, properties = "product.price-updates.write-behind=true")
+class ProductPriceControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductPriceOperations priceOperations;
+
+    @Test
+    void shouldAcceptPrice() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .put("/api/v1/product/FAL-1111111/price")
+                        .content("{\"price\": 12.50}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted());
+
+        verify(priceOperations).updatePrice(eq("FAL-1111111"), eq(new BigDecimal("12.50")));
+
+    }
+
+    @Test
+    void shouldAskToRetryWhenFull() throws Exception {
+
+        doThrow(new ProductBackpressureException("Too many price updates waiting, retry later"))
+                .when(priceOperations).updatePrice(anyString(), any(BigDecimal.class));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .put("/api/v1/product/FAL-1111111/price")
+                        .content("{\"price\": 12.50}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.details[0]").value("Too many price updates waiting, retry later"));
+
+    }
+
+    @Test
+    void shouldRejectPriceBelowMinimum() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .put("/api/v1/product/FAL-1111111/price")
+                        .content("{\"price\": 0.50}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details[0]").value("The minimum value is 1.00"));
+
+        verifyNoInteractions(priceOperations);
+
+    }
+
+}
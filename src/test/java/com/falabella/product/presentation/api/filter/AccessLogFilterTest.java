@@ -0,0 +1,114 @@
+package com.falabella.product.presentation.api.filter;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccessLogFilterTest {
+
+    private Logger accessLogger;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        accessLogger = (Logger) LoggerFactory.getLogger("com.falabella.product.access");
+        appender = new ListAppender<>();
+        appender.start();
+        accessLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        accessLogger.detachAppender(appender);
+    }
+
+    @Test
+    void shouldLogSampledRequest() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/product/FAL-1111111");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("sku", "FAL-1111111"));
+
+        new AccessLogFilter(1.0).doFilter(request, new MockHttpServletResponse(), chainWriting(200, "{\"sku\":\"FAL-1111111\"}"));
+
+        assertThat(appender.list).hasSize(1);
+        assertThat(appender.list.get(0).getFormattedMessage())
+                .startsWith("method=GET path=/api/v1/product/FAL-1111111 sku=FAL-1111111 status=200 latency_ms=")
+                .endsWith(" bytes=21");
+
+    }
+
+    @Test
+    void shouldSkipUnsampledRequest() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products");
+        request.addParameter("sku", "FAL-1111111", "FAL-1111112");
+
+        new AccessLogFilter(0.0).doFilter(request, new MockHttpServletResponse(), chainWriting(200, "[]"));
+
+        assertThat(appender.list).isEmpty();
+
+    }
+
+    @Test
+    void shouldAlwaysLogServerError() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products");
+        request.addParameter("sku", "FAL-1111111", "FAL-1111112");
+
+        new AccessLogFilter(0.0).doFilter(request, new MockHttpServletResponse(), chainWriting(500, "{}"));
+
+        assertThat(appender.list).hasSize(1);
+        assertThat(appender.list.get(0).getFormattedMessage())
+                .contains("sku=FAL-1111111,FAL-1111112 status=500")
+                .endsWith(" bytes=-1");
+
+    }
+
+    @Test
+    void shouldLogEscapedExceptionAsServerError() {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/product/FAL-1111111");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("sku", "FAL-1111111"));
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                throw new IllegalStateException("database down");
+            }
+        });
+
+        assertThatThrownBy(() -> new AccessLogFilter(0.0).doFilter(request, new MockHttpServletResponse(), chain))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(appender.list).hasSize(1);
+        assertThat(appender.list.get(0).getFormattedMessage()).contains("sku=FAL-1111111 status=500");
+
+    }
+
+    private MockFilterChain chainWriting(int status, String body) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                response.setStatus(status);
+                response.getWriter().write(body);
+            }
+        });
+    }
+
+}